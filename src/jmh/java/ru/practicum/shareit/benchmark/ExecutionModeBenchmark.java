@@ -0,0 +1,133 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.execution.ExecutionMode;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Booking latency while search requests wait on a slow database. The application runs on an
+ * embedded Tomcat whose worker pool is smaller than the number of concurrent searches, and both
+ * request kinds go over HTTP through the whole filter chain; only {@link ItemService#search} is
+ * slowed down to stand in for the database. In {@code SYNC} mode bookings queue behind searches
+ * for a worker, in {@code BULKHEAD} mode the bulkhead filter rejects surplus searches with 503
+ * and the pool keeps serving bookings.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Group)
+public class ExecutionModeBenchmark {
+    private static final int WORKER_THREADS = 4;
+    private static final int SEARCH_LIMIT = 2;
+    private static final long SLOW_SEARCH_MILLIS = 200;
+
+    @Param({"SYNC", "BULKHEAD"})
+    public ExecutionMode mode;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest search;
+    private HttpRequest bookings;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItApp.class, SlowSearch.class)
+                .profiles("test")
+                .run("--server.port=0",
+                        "--server.tomcat.threads.max=" + WORKER_THREADS,
+                        "--server.tomcat.threads.min-spare=" + WORKER_THREADS,
+                        "--shareit.execution.mode=" + mode.name().toLowerCase(),
+                        "--shareit.execution.max-wait=0ms",
+                        "--shareit.execution.limits.search=" + SEARCH_LIMIT,
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.springframework.transaction.interceptor=WARN",
+                        "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN",
+                        "--logging.level.ru.practicum.shareit=ERROR");
+        int userId = context.getBean(UserService.class)
+                .create(new UserDto(0, "booker", "booker@benchmark"))
+                .getId();
+        URI server = URI.create("http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort());
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+        search = HttpRequest.newBuilder(server.resolve("/items/search?text=drill"))
+                .header("X-Sharer-User-Id", String.valueOf(userId))
+                .build();
+        bookings = HttpRequest.newBuilder(server.resolve("/bookings?state=ALL"))
+                .header("X-Sharer-User-Id", String.valueOf(userId))
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(8)
+    public int search() throws Exception {
+        return client.send(search, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(2)
+    public int booking() throws Exception {
+        return client.send(bookings, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    /**
+     * Makes every item search take {@link #SLOW_SEARCH_MILLIS} longer, as a slow database would.
+     */
+    static class SlowSearch implements BeanPostProcessor {
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof ItemService)) {
+                return bean;
+            }
+            return Proxy.newProxyInstance(ItemService.class.getClassLoader(), new Class<?>[]{ItemService.class},
+                    (proxy, method, args) -> {
+                        if (method.getName().equals("search")) {
+                            Thread.sleep(SLOW_SEARCH_MILLIS);
+                        }
+                        try {
+                            return method.invoke(bean, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+        }
+    }
+}
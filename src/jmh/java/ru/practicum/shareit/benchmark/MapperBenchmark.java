@@ -0,0 +1,95 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingDtoForItem;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.item.comment.Comment;
+import ru.practicum.shareit.item.comment.CommentDto;
+import ru.practicum.shareit.item.comment.CommentMapper;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemDtoInfo;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.dto.ItemRequestDtoOutput;
+import ru.practicum.shareit.request.dto.ItemRequestMapper;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.mapper.UserMapper;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Thread)
+public class MapperBenchmark {
+    private User user;
+    private Item item;
+    private ItemRequest itemRequest;
+    private Booking booking;
+    private Comment comment;
+    private List<ItemDto> itemDtos;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        user = new User(1, "user", "user@benchmark");
+        itemRequest = new ItemRequest(1, "Need a drill", user, now);
+        item = new Item(1, "Drill", "Cordless drill", true, user.getId(), itemRequest);
+        booking = new Booking(1, user, now.plusDays(1), now.plusDays(2), item, Status.APPROVED);
+        comment = new Comment(1, "Great", item, user, now);
+        itemDtos = List.of(ItemMapper.toItemDto(item), ItemMapper.toItemDto(item));
+    }
+
+    @Benchmark
+    public ItemDto itemToItemDto() {
+        return ItemMapper.toItemDto(item);
+    }
+
+    @Benchmark
+    public ItemDtoInfo itemToItemDtoInfo() {
+        return ItemMapper.toItemDtoInfo(item);
+    }
+
+    @Benchmark
+    public BookingDto bookingToBookingDto() {
+        return BookingMapper.toBookingDto(booking);
+    }
+
+    @Benchmark
+    public BookingDtoForItem bookingToBookingDtoForItem() {
+        return BookingMapper.toBookingDtoForItem(booking);
+    }
+
+    @Benchmark
+    public CommentDto commentToCommentDto() {
+        return CommentMapper.toCommentDto(comment);
+    }
+
+    @Benchmark
+    public ItemRequestDtoOutput itemRequestToItemRequestDtoOut() {
+        return ItemRequestMapper.toItemRequestDtoOut(itemRequest, itemDtos);
+    }
+
+    @Benchmark
+    public UserDto userToUserDto() {
+        return UserMapper.toUser(user);
+    }
+}
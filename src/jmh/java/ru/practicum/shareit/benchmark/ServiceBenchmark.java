@@ -0,0 +1,45 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.dto.BookingDtoShort;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemDtoInfo;
+import ru.practicum.shareit.request.dto.ItemRequestDtoOutput;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ServiceBenchmark {
+    private static final int PAGE_SIZE = 20;
+
+    @Benchmark
+    public List<ItemDtoInfo> itemGetAll(ServiceState state) {
+        return state.itemService.getAll(state.ownerId, 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<ItemDto> itemSearch(ServiceState state) {
+        return state.itemService.search("drill", state.bookerId, 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<BookingDtoShort> bookingGetAllByOwnerId(ServiceState state) {
+        return state.bookingService.getAllByOwnerId(state.ownerId, "ALL", 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<ItemRequestDtoOutput> itemRequestGetAllOtherUser(ServiceState state) {
+        return state.itemRequestService.getAllOtherUser(state.bookerId, 0, PAGE_SIZE);
+    }
+}
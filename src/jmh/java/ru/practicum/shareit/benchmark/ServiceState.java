@@ -0,0 +1,125 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.booking.admission.BookingIntervalIndex;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.comment.Comment;
+import ru.practicum.shareit.item.comment.CommentRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.summary.ItemBookingSummaries;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.registry.UserRegistry;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Boots the application against an in-memory H2 database and seeds one owner with
+ * {@code items} items, each with a past and a future approved booking, a waiting booking
+ * and two comments, plus one item request per ten items. Item booking summaries are brought
+ * up to date the way the services maintain them, so item reads take the summary path.
+ */
+@State(Scope.Benchmark)
+public class ServiceState {
+    private static final String[] NAMES = {"Drill", "Ladder", "Saw", "Hammer", "Tent", "Bike", "Kayak", "Grill"};
+
+    @Param({"100", "1000"})
+    public int items;
+
+    public int ownerId;
+    public int bookerId;
+    public ItemService itemService;
+    public BookingService bookingService;
+    public ItemRequestService itemRequestService;
+
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItApp.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run("--logging.level.root=WARN",
+                        "--logging.level.org.springframework.transaction.interceptor=WARN",
+                        "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN",
+                        "--logging.level.ru.practicum.shareit=WARN");
+        itemService = context.getBean(ItemService.class);
+        bookingService = context.getBean(BookingService.class);
+        itemRequestService = context.getBean(ItemRequestService.class);
+        seed();
+        context.getBean(ItemSearchIndex.class).rebuild();
+        context.getBean(BookingIntervalIndex.class).rebuild();
+        context.getBean(UserRegistry.class).rebuild();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private void seed() {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        ItemRepository itemRepository = context.getBean(ItemRepository.class);
+        ItemRequestRepository itemRequestRepository = context.getBean(ItemRequestRepository.class);
+        BookingRepository bookingRepository = context.getBean(BookingRepository.class);
+        CommentRepository commentRepository = context.getBean(CommentRepository.class);
+        ItemBookingSummaries itemBookingSummaries = context.getBean(ItemBookingSummaries.class);
+
+        User owner = userRepository.save(new User(0, "owner", "owner@benchmark"));
+        User booker = userRepository.save(new User(0, "booker", "booker@benchmark"));
+        ownerId = owner.getId();
+        bookerId = booker.getId();
+
+        LocalDateTime now = LocalDateTime.now();
+        List<ItemRequest> requests = new ArrayList<>();
+        for (int i = 0; i < Math.max(1, items / 10); i++) {
+            requests.add(new ItemRequest("Need a " + NAMES[i % NAMES.length], owner, now.minusHours(i)));
+        }
+        requests = itemRequestRepository.saveAll(requests);
+
+        List<Item> savedItems = new ArrayList<>();
+        for (int i = 0; i < items; i++) {
+            String name = NAMES[i % NAMES.length] + " " + i;
+            ItemRequest request = i % 10 == 0 ? requests.get(i / 10) : null;
+            savedItems.add(new Item(0, name, "Well kept " + name.toLowerCase(), true, ownerId, request));
+        }
+        savedItems = itemRepository.saveAll(savedItems);
+        List<Integer> itemIds = new ArrayList<>();
+        savedItems.forEach(item -> itemIds.add(item.getId()));
+        itemBookingSummaries.created(itemIds);
+
+        List<Booking> bookings = new ArrayList<>();
+        List<Comment> comments = new ArrayList<>();
+        for (Item item : savedItems) {
+            bookings.add(new Booking(0, booker, now.minusDays(10), now.minusDays(8), item, Status.APPROVED));
+            bookings.add(new Booking(0, booker, now.plusDays(3), now.plusDays(5), item, Status.APPROVED));
+            bookings.add(new Booking(0, booker, now.plusDays(7), now.plusDays(9), item, Status.WAITING));
+            comments.add(new Comment(0, "Great", item, booker, now.minusDays(7)));
+            comments.add(new Comment(0, "Works fine", item, booker, now.minusDays(6)));
+        }
+        bookingRepository.saveAll(bookings);
+        commentRepository.saveAll(comments);
+        comments.forEach(comment -> itemBookingSummaries.commentAdded(comment.getItem().getId()));
+        itemIds.forEach(itemBookingSummaries::refresh);
+    }
+}
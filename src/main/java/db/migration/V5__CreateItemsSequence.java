@@ -0,0 +1,25 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * Creates the sequence items take their ids from. It starts past the ids already handed out by
+ * the identity column, which is why it cannot be a plain SQL migration.
+ */
+public class V5__CreateItemsSequence extends BaseJavaMigration {
+    @Override
+    public void migrate(Context context) throws Exception {
+        try (Statement statement = context.getConnection().createStatement()) {
+            long start;
+            try (ResultSet rs = statement.executeQuery("SELECT COALESCE(MAX(id), 0) + 1 FROM items")) {
+                rs.next();
+                start = rs.getLong(1);
+            }
+            statement.execute("CREATE SEQUENCE IF NOT EXISTS items_seq START WITH " + start + " INCREMENT BY 50");
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package ru.practicum.shareit.booking.admission;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.BookingSlot;
+import ru.practicum.shareit.datasource.ReplicaRoutingDataSource;
+import ru.practicum.shareit.transaction.AfterTransaction;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Approved booking ranges per item, keyed by start. Approved ranges of one item never overlap,
+ * so the only candidate for a conflict is the range with the greatest start before the
+ * requested end, which makes every check a single O(log n) lookup. Each item's map is guarded
+ * by its own monitor, so bursts on different items do not contend.
+ * <p>
+ * Ranges that have ended can no longer conflict with a new booking and are dropped, both when
+ * their item is touched and by a periodic sweep, so the index only holds current and future ranges.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BookingIntervalIndex implements SmartInitializingSingleton {
+    private final BookingRepository bookingRepository;
+    private final Map<Integer, NavigableMap<LocalDateTime, Interval>> items = new ConcurrentHashMap<>();
+
+    /**
+     * Must be complete before the first confirmation is admitted, hence before the web server starts.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    public synchronized void rebuild() {
+        items.clear();
+        ReplicaRoutingDataSource.onPrimary(() ->
+                bookingRepository.findAllByStatusAndEndAfter(Status.APPROVED, LocalDateTime.now())
+                        .forEach(this::tryAdd));
+        log.info("Booking interval index rebuilt for {} items", items.size());
+    }
+
+    public Optional<Interval> findConflict(int itemId, LocalDateTime start, LocalDateTime end) {
+        NavigableMap<LocalDateTime, Interval> intervals = items.get(itemId);
+        if (intervals == null) {
+            return Optional.empty();
+        }
+        synchronized (intervals) {
+            return conflict(intervals, start, end);
+        }
+    }
+
+    /**
+     * Records an approved booking unless it overlaps one already recorded for the same item.
+     *
+     * @return {@code false} if the booking conflicts with another approved booking
+     */
+    public boolean tryAdd(Booking booking) {
+        return tryAdd(booking.getItem().getId(), booking.getId(), booking.getStart(), booking.getEnd());
+    }
+
+    /**
+     * Claims the range for the current transaction: if the transaction does not commit, the range
+     * is released again, so a rollback cannot leave a phantom booking that rejects later requests.
+     */
+    public boolean tryAdd(int itemId, int bookingId, LocalDateTime start, LocalDateTime end) {
+        while (true) {
+            NavigableMap<LocalDateTime, Interval> intervals = items.computeIfAbsent(itemId, id -> new TreeMap<>());
+            synchronized (intervals) {
+                if (items.get(itemId) != intervals) {
+                    continue; // emptied and dropped by a sweep in the meantime
+                }
+                pruneEnded(intervals, LocalDateTime.now());
+                if (conflict(intervals, start, end).isPresent()) {
+                    return false;
+                }
+                intervals.put(start, new Interval(bookingId, start, end));
+            }
+            AfterTransaction.unlessCommitted(() -> remove(itemId, bookingId, start));
+            return true;
+        }
+    }
+
+    public void remove(Booking booking) {
+        remove(booking.getItem().getId(), booking.getId(), booking.getStart());
+    }
+
+    public void remove(int itemId, int bookingId, LocalDateTime start) {
+        NavigableMap<LocalDateTime, Interval> intervals = items.get(itemId);
+        if (intervals != null) {
+            synchronized (intervals) {
+                intervals.computeIfPresent(start,
+                        (key, interval) -> interval.getBookingId() == bookingId ? null : interval);
+            }
+        }
+    }
+
+    /**
+     * Forgets everything recorded for items that are gone, e.g. removed with their owner.
+     */
+    public void removeItems(Collection<Integer> itemIds) {
+        itemIds.forEach(items::remove);
+    }
+
+    /**
+     * Forgets the ranges the database drops when the user is deleted: those of the given items,
+     * which go with the user, and the user's own approved bookings of other items. Must be called
+     * before the delete, while the bookings can still be read; the index changes once it commits.
+     */
+    public void userRemoved(int userId, Collection<Integer> itemIds) {
+        List<BookingSlot> booked = bookingRepository.findApprovedSlotsByBookerId(userId, LocalDateTime.now());
+        AfterTransaction.afterCommit(() -> {
+            removeItems(itemIds);
+            booked.forEach(slot -> remove(slot.getItemId(), slot.getId(), slot.getStart()));
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-index.prune-delay:600000}")
+    public void pruneEnded() {
+        LocalDateTime now = LocalDateTime.now();
+        items.forEach((itemId, intervals) -> {
+            synchronized (intervals) {
+                pruneEnded(intervals, now);
+                if (intervals.isEmpty()) {
+                    items.remove(itemId, intervals);
+                }
+            }
+        });
+    }
+
+    /**
+     * Ranges of one item do not overlap, so ordered by start they are also ordered by end and the
+     * ended ones form a prefix of the map.
+     */
+    private static void pruneEnded(NavigableMap<LocalDateTime, Interval> intervals, LocalDateTime now) {
+        Iterator<Interval> iterator = intervals.values().iterator();
+        while (iterator.hasNext() && !iterator.next().getEnd().isAfter(now)) {
+            iterator.remove();
+        }
+    }
+
+    private static Optional<Interval> conflict(NavigableMap<LocalDateTime, Interval> intervals,
+                                               LocalDateTime start, LocalDateTime end) {
+        Map.Entry<LocalDateTime, Interval> before = intervals.lowerEntry(end);
+        if (before != null && before.getValue().getEnd().isAfter(start)) {
+            return Optional.of(before.getValue());
+        }
+        return Optional.empty();
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Interval {
+        private final int bookingId;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+    }
+}
@@ -1,16 +1,33 @@
 package ru.practicum.shareit.booking.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingConfirmationDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoRequest;
+import ru.practicum.shareit.booking.dto.BookingDtoShort;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.MessageFailedException;
+import ru.practicum.shareit.pagination.Cursor;
 
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 
@@ -21,31 +38,79 @@ import java.util.List;
 @RequestMapping("/bookings")
 public class BookingController {
     private final BookingService bookingService;
+    private final ObjectMapper objectMapper;
     private static final String X_SHARER_USER_ID = "X-Sharer-User-Id";
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+    private static final String CSV_HEADER = "id,start,end,status,itemId,itemName,bookerId,bookerName\n";
 
     @GetMapping("{bookingId}")
     public BookingDto getById(@RequestHeader(X_SHARER_USER_ID) int ownerId,
-                              @PathVariable int bookingId) {
+                              @PathVariable int bookingId,
+                              ServletWebRequest request) {
         log.info("getById() in BookingController");
+        request.getResponse().addHeader(HttpHeaders.VARY, X_SHARER_USER_ID);
+        if (request.checkNotModified(bookingService.getETag(bookingId, ownerId))) {
+            return null;
+        }
         return bookingService.getById(bookingId, ownerId);
     }
 
     @GetMapping
-    public List<BookingDto> getAllByBookerId(@RequestHeader(X_SHARER_USER_ID) int bookerId,
-                                             @RequestParam(defaultValue = "ALL") String state,
-                                             @PositiveOrZero @RequestParam(defaultValue = "0") int from,
-                                             @Positive @RequestParam(defaultValue = "10") int size) {
+    public ResponseEntity<List<BookingDtoShort>> getAllByBookerId(@RequestHeader(X_SHARER_USER_ID) int bookerId,
+                                                                  @RequestParam(defaultValue = "ALL") String state,
+                                                                  @PositiveOrZero @RequestParam(defaultValue = "0") int from,
+                                                                  @Positive @RequestParam(defaultValue = "10") int size,
+                                                                  @RequestParam(required = false) String after) {
         log.info("getAllByBookerId() in BookingController");
-        return bookingService.getAllByBookerId(bookerId, state, from, size);
+        List<BookingDtoShort> bookings = after == null
+                ? bookingService.getAllByBookerId(bookerId, state, from, size)
+                : bookingService.getAllByBookerId(bookerId, state, Cursor.decode(after), size);
+        return withNextCursor(bookings, size);
     }
 
     @GetMapping("/owner")
-    public List<BookingDto> getAllByOwnerId(@RequestHeader(X_SHARER_USER_ID) int ownerId,
-                                            @RequestParam(defaultValue = "ALL") String state,
-                                            @PositiveOrZero @RequestParam(defaultValue = "0") int from,
-                                            @Positive @RequestParam(defaultValue = "10") int size) {
+    public ResponseEntity<List<BookingDtoShort>> getAllByOwnerId(@RequestHeader(X_SHARER_USER_ID) int ownerId,
+                                                                 @RequestParam(defaultValue = "ALL") String state,
+                                                                 @PositiveOrZero @RequestParam(defaultValue = "0") int from,
+                                                                 @Positive @RequestParam(defaultValue = "10") int size,
+                                                                 @RequestParam(required = false) String after) {
         log.info("getAllByOwnerId() in BookingController");
-        return bookingService.getAllByOwnerId(ownerId, state, from, size);
+        List<BookingDtoShort> bookings = after == null
+                ? bookingService.getAllByOwnerId(ownerId, state, from, size)
+                : bookingService.getAllByOwnerId(ownerId, state, Cursor.decode(after), size);
+        return withNextCursor(bookings, size);
+    }
+
+    @GetMapping("/owner/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestHeader(X_SHARER_USER_ID) int ownerId,
+                                                        @RequestParam(defaultValue = "ndjson") String format) {
+        log.info("export() in BookingController");
+        switch (format) {
+            case "ndjson":
+                return export(MediaType.APPLICATION_NDJSON, out -> bookingService.exportByOwnerId(ownerId, booking -> {
+                    try {
+                        out.write(objectMapper.writeValueAsBytes(booking));
+                        out.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }));
+            case "csv":
+                return export(TEXT_CSV, out -> {
+                    Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+                    writer.write(CSV_HEADER);
+                    bookingService.exportByOwnerId(ownerId, booking -> {
+                        try {
+                            writer.write(toCsvLine(booking));
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                    writer.flush();
+                });
+            default:
+                throw new MessageFailedException(String.format("Unknown format: %s", format));
+        }
     }
 
     @PostMapping
@@ -63,4 +128,49 @@ public class BookingController {
         return bookingService.confirmation(bookingId, userId, approved);
     }
 
+    @PatchMapping
+    public List<BookingConfirmationDto> confirmAll(@RequestHeader(X_SHARER_USER_ID) int userId,
+                                                   @RequestParam boolean approved,
+                                                   @RequestBody @NotEmpty @Size(max = 100) List<Integer> bookingIds) {
+        log.info("confirmAll() in BookingController");
+        return bookingService.confirmAll(userId, bookingIds, approved);
+    }
+
+    private ResponseEntity<StreamingResponseBody> export(MediaType mediaType, StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .contentType(mediaType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment")
+                .body(body);
+    }
+
+    private static String toCsvLine(BookingDtoShort booking) {
+        return booking.getId() + "," +
+                booking.getStart() + "," +
+                booking.getEnd() + "," +
+                booking.getStatus() + "," +
+                booking.getItem().getId() + "," +
+                csvField(booking.getItem().getName()) + "," +
+                booking.getBooker().getId() + "," +
+                csvField(booking.getBooker().getName()) + "\n";
+    }
+
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+
+    private ResponseEntity<List<BookingDtoShort>> withNextCursor(List<BookingDtoShort> bookings, int size) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (bookings.size() == size) {
+            BookingDtoShort last = bookings.get(bookings.size() - 1);
+            response.header(Cursor.HEADER, Cursor.encode(last.getStart(), last.getId()));
+        }
+        return response.body(bookings);
+    }
+
 }
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.booking.model.Status;
+
+/**
+ * Outcome of one booking in a batch confirmation: the resulting status, or the current status
+ * and the reason it was left unchanged.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingConfirmationDto {
+    private int bookingId;
+    private Status status;
+    private String error;
+}
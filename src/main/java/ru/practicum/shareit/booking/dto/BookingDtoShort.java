@@ -0,0 +1,49 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.booking.model.Status;
+
+import java.time.LocalDateTime;
+
+/**
+ * Booking list view. Built straight from the query through a constructor projection,
+ * so neither the item nor the booker entity is loaded; they serialize as {id, name} only.
+ */
+@Data
+@NoArgsConstructor
+public class BookingDtoShort {
+    private int id;
+    private ItemShort item;
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private BookerShort booker;
+    private Status status;
+
+    public BookingDtoShort(int id, LocalDateTime start, LocalDateTime end, Status status,
+                           int itemId, String itemName, int bookerId, String bookerName) {
+        this.id = id;
+        this.item = new ItemShort(itemId, itemName);
+        this.start = start;
+        this.end = end;
+        this.booker = new BookerShort(bookerId, bookerName);
+        this.status = status;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ItemShort {
+        private int id;
+        private String name;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BookerShort {
+        private int id;
+        private String name;
+    }
+}
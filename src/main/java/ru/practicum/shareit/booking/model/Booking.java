@@ -1,6 +1,5 @@
 package ru.practicum.shareit.booking.model;
 
-import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import ru.practicum.shareit.item.model.Item;
@@ -13,7 +12,6 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "bookings", schema = "public")
 @Data
-@AllArgsConstructor
 @NoArgsConstructor
 public class Booking {
     @Id
@@ -34,6 +32,17 @@ public class Booking {
     @Enumerated(EnumType.STRING)
     @NotNull
     private Status status;
+    @Version
+    private long version;
+
+    public Booking(int id, User booker, LocalDateTime start, LocalDateTime end, Item item, Status status) {
+        this.id = id;
+        this.booker = booker;
+        this.start = start;
+        this.end = end;
+        this.item = item;
+        this.status = status;
+    }
 
     public Booking(LocalDateTime start, LocalDateTime end, Item item, User booker) {
         this.start = start;
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.booking.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * A booking as an item summary records it, read without loading the booking or user entities.
+ */
+public interface BookingRef {
+    int getId();
+
+    int getBookerId();
+
+    LocalDateTime getStart();
+}
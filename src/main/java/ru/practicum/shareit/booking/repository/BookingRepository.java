@@ -1,38 +1,163 @@
 package ru.practicum.shareit.booking.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.dto.BookingDtoShort;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
 
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 @Repository
-public interface BookingRepository extends JpaRepository<Booking, Integer> {
+public interface BookingRepository extends JpaRepository<Booking, Integer>, JpaSpecificationExecutor<Booking>,
+        BookingRepositoryCustom {
 
-    List<Booking> findAllByBookerId(int bookerId);
+    /**
+     * Filters on the foreign key columns themselves: the derived query joined users and items to
+     * compare their ids, which kept the (booker_id, item_id, status, end_date) index out of the plan.
+     */
+    @Query("select count(b) > 0 from Booking b " +
+            "where b.booker.id = :bookerId " +
+            "and b.item.id = :itemId " +
+            "and b.status = :status " +
+            "and b.end < :end")
+    boolean existsByBookerIdAndItemIdAndStatusAndEndBefore(int bookerId, int itemId, Status status,
+                                                           LocalDateTime end);
 
-    Page<Booking> findAllByBookerId(int bookerId, Pageable page);
+    List<Booking> findAllByStatusAndEndAfter(Status status, LocalDateTime end);
 
-    @Query("select b from Booking b " +
-            " where b.item.ownerId = :ownerId ")
-    Page<Booking> findAllByOwnerId(int ownerId, Pageable page);
+    /**
+     * Moves a waiting booking of one of the owner's items to the given status. The status
+     * condition makes the transition a compare-and-set: of two concurrent confirmations only
+     * one sees a row to update.
+     *
+     * @return number of updated rows, {@code 0} if the booking is not waiting or not the owner's
+     */
+    @Modifying
+    @Query("update Booking b set b.status = :status, b.version = b.version + 1 " +
+            "where b.id = :bookingId " +
+            "and b.status = 'WAITING' " +
+            "and b.item.id in (select i.id from Item i where i.ownerId = :ownerId)")
+    int updateWaitingStatus(int bookingId, int ownerId, Status status);
 
-    @Query("select b from Booking b " +
+    @Modifying
+    @Query("update Booking b set b.status = :status, b.version = b.version + 1 " +
+            "where b.id in :bookingIds " +
+            "and b.status = 'WAITING'")
+    int updateWaitingStatuses(Collection<Integer> bookingIds, Status status);
+
+    @Query("select b.id as id, b.item.id as itemId, b.item.ownerId as ownerId, " +
+            "b.start as start, b.end as end, b.status as status " +
+            "from Booking b " +
+            "where b.id in :bookingIds")
+    List<BookingSlot> findSlotsByIdIn(Collection<Integer> bookingIds);
+
+    @Query("select b.id as id, b.item.id as itemId, b.item.ownerId as ownerId, " +
+            "b.start as start, b.end as end, b.status as status " +
+            "from Booking b " +
+            "where b.booker.id = :bookerId " +
+            "and b.status = 'APPROVED' " +
+            "and b.end > :now")
+    List<BookingSlot> findApprovedSlotsByBookerId(int bookerId, LocalDateTime now);
+
+    @Query("select b.id from Booking b " +
+            "where b.id in :bookingIds " +
+            "and exists (select o.id from Booking o " +
+            "where o.item.id = b.item.id " +
+            "and o.id <> b.id " +
+            "and o.status = 'APPROVED' " +
+            "and o.start < b.end " +
+            "and o.end > b.start)")
+    List<Integer> findIdsOverlappingApproved(Collection<Integer> bookingIds);
+
+    @Query("select b.version as version, i.version as itemVersion, i.ownerId as ownerId, " +
+            "u.id as bookerId, u.name as bookerName, u.email as bookerEmail " +
+            "from Booking b " +
+            "join b.item i " +
+            "join b.booker u " +
+            "where b.id = :bookingId")
+    Optional<BookingVersion> findVersionById(int bookingId);
+
+    @Query("select count(b) > 0 from Booking b " +
             "where b.item.id = :itemId " +
+            "and b.id <> :bookingId " +
+            "and b.status = 'APPROVED' " +
+            "and b.start < :end " +
+            "and b.end > :start")
+    boolean existsApprovedOverlap(int itemId, int bookingId, LocalDateTime start, LocalDateTime end);
+
+    @Query("select b from Booking b " +
+            "join fetch b.booker " +
+            "where b.item.id in :itemIds " +
             "and b.item.ownerId = :ownerId " +
-            "and b.status = 'APPROVED'" +
-            "and b.end < current_timestamp " +
-            "order by b.end ")
-    Booking findLastBooking(int itemId, int ownerId);
+            "and b.status = 'APPROVED' " +
+            "and b.end = (select max(lb.end) from Booking lb " +
+            "where lb.item.id = b.item.id " +
+            "and lb.status = 'APPROVED' " +
+            "and lb.end < current_timestamp) ")
+    List<Booking> findLastBookings(Collection<Integer> itemIds, int ownerId);
 
     @Query("select b from Booking b " +
-            "where b.item.id = :itemId " +
+            "join fetch b.booker " +
+            "where b.item.id in :itemIds " +
             "and b.item.ownerId = :ownerId " +
-            "and b.status = 'APPROVED'" +
-            "and b.start > current_timestamp " +
-            "order by b.start ")
-    Booking findNextBooking(int itemId, int ownerId);
+            "and b.status = 'APPROVED' " +
+            "and b.start = (select min(nb.start) from Booking nb " +
+            "where nb.item.id = b.item.id " +
+            "and nb.status = 'APPROVED' " +
+            "and nb.start > current_timestamp) ")
+    List<Booking> findNextBookings(Collection<Integer> itemIds, int ownerId);
+
+    @Query("select b.id as id, b.booker.id as bookerId, b.start as start " +
+            "from Booking b " +
+            "where b.item.id = :itemId " +
+            "and b.status = 'APPROVED' " +
+            "and b.end < :now " +
+            "order by b.end desc, b.id desc")
+    List<BookingRef> findApprovedEndedBefore(int itemId, LocalDateTime now, Pageable pageable);
+
+    @Query("select b.id as id, b.booker.id as bookerId, b.start as start " +
+            "from Booking b " +
+            "where b.item.id = :itemId " +
+            "and b.status = 'APPROVED' " +
+            "and b.start > :now " +
+            "order by b.start, b.id")
+    List<BookingRef> findApprovedStartingAfter(int itemId, LocalDateTime now, Pageable pageable);
+
+    @Query("select min(b.end) from Booking b " +
+            "where b.item.id = :itemId " +
+            "and b.status = 'APPROVED' " +
+            "and b.end > :now")
+    LocalDateTime findEarliestApprovedEndAfter(int itemId, LocalDateTime now);
+
+    /**
+     * Full booking history of the owner, newest first, read through a server-side cursor. Rows are
+     * read straight into {@link BookingDtoShort}, so nothing enters the persistence context however
+     * long the history is; the caller must consume and close the stream inside a transaction.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_CACHEABLE, value = "false")
+    })
+    @Query("select new ru.practicum.shareit.booking.dto.BookingDtoShort(" +
+            "b.id, b.start, b.end, b.status, i.id, i.name, u.id, u.name) " +
+            "from Booking b " +
+            "join b.item i " +
+            "join b.booker u " +
+            "where i.ownerId = :ownerId " +
+            "order by b.start desc, b.id desc")
+    Stream<BookingDtoShort> streamAllShortByOwnerId(int ownerId);
 }
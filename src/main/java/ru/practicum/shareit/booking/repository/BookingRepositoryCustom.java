@@ -0,0 +1,12 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.dto.BookingDtoShort;
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.util.List;
+
+public interface BookingRepositoryCustom {
+    List<BookingDtoShort> findAllShort(Specification<Booking> specification, Pageable pageable);
+}
@@ -0,0 +1,41 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import ru.practicum.shareit.booking.dto.BookingDtoShort;
+import ru.practicum.shareit.booking.model.Booking;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
+import java.util.List;
+
+public class BookingRepositoryCustomImpl implements BookingRepositoryCustom {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<BookingDtoShort> findAllShort(Specification<Booking> specification, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookingDtoShort> query = cb.createQuery(BookingDtoShort.class);
+        Root<Booking> root = query.from(Booking.class);
+        query.select(cb.construct(BookingDtoShort.class,
+                        root.get("id"),
+                        root.get("start"),
+                        root.get("end"),
+                        root.get("status"),
+                        root.get("item").get("id"),
+                        root.get("item").get("name"),
+                        root.get("booker").get("id"),
+                        root.get("booker").get("name")))
+                .where(specification.toPredicate(root, query, cb))
+                .orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        return entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+    }
+}
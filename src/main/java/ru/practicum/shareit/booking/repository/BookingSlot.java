@@ -0,0 +1,22 @@
+package ru.practicum.shareit.booking.repository;
+
+import ru.practicum.shareit.booking.model.Status;
+
+import java.time.LocalDateTime;
+
+/**
+ * The columns a status transition needs, read without loading the booking, item or user entities.
+ */
+public interface BookingSlot {
+    int getId();
+
+    int getItemId();
+
+    int getOwnerId();
+
+    LocalDateTime getStart();
+
+    LocalDateTime getEnd();
+
+    Status getStatus();
+}
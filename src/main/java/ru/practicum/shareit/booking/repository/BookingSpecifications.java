@@ -0,0 +1,47 @@
+package ru.practicum.shareit.booking.repository;
+
+import lombok.experimental.UtilityClass;
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.Status;
+
+import java.time.LocalDateTime;
+
+@UtilityClass
+public class BookingSpecifications {
+    public static Specification<Booking> byBooker(int bookerId) {
+        return (root, query, cb) -> cb.equal(root.get("booker").get("id"), bookerId);
+    }
+
+    public static Specification<Booking> byOwner(int ownerId) {
+        return (root, query, cb) -> cb.equal(root.get("item").get("ownerId"), ownerId);
+    }
+
+    public static Specification<Booking> byStatus(Status status) {
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Booking> startedBefore(LocalDateTime start, int id) {
+        return (root, query, cb) -> cb.or(cb.lessThan(root.<LocalDateTime>get("start"), start),
+                cb.and(cb.equal(root.get("start"), start), cb.lessThan(root.<Integer>get("id"), id)));
+    }
+
+    public static Specification<Booking> byState(BookingState state, LocalDateTime now) {
+        switch (state) {
+            case CURRENT:
+                return (root, query, cb) -> cb.and(cb.lessThan(root.<LocalDateTime>get("start"), now),
+                        cb.greaterThan(root.<LocalDateTime>get("end"), now));
+            case PAST:
+                return (root, query, cb) -> cb.lessThan(root.<LocalDateTime>get("end"), now);
+            case FUTURE:
+                return (root, query, cb) -> cb.greaterThan(root.<LocalDateTime>get("start"), now);
+            case WAITING:
+                return byStatus(Status.WAITING);
+            case REJECTED:
+                return byStatus(Status.REJECTED);
+            default:
+                return (root, query, cb) -> cb.conjunction();
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking.repository;
+
+/**
+ * What a booking read depends on, enough to derive its ETag and check access without loading
+ * the booking, item or user entities. Users have no version, so their fields are read instead.
+ */
+public interface BookingVersion {
+    long getVersion();
+
+    long getItemVersion();
+
+    int getOwnerId();
+
+    int getBookerId();
+
+    String getBookerName();
+
+    String getBookerEmail();
+}
@@ -1,20 +1,34 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.booking.dto.BookingConfirmationDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoRequest;
+import ru.practicum.shareit.booking.dto.BookingDtoShort;
+import ru.practicum.shareit.pagination.Cursor;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface BookingService {
 
     BookingDto getById(int id, int ownerId);
 
+    String getETag(int bookingId, int userId);
+
     BookingDto confirmation(int bookingId, int ownerId, boolean approved);
 
+    List<BookingConfirmationDto> confirmAll(int ownerId, List<Integer> bookingIds, boolean approved);
+
     BookingDto save(int userId, BookingDtoRequest bookingDto);
 
-    List<BookingDto> getAllByBookerId(int bookerId, String state, int from, int size);
+    List<BookingDtoShort> getAllByBookerId(int bookerId, String state, int from, int size);
+
+    List<BookingDtoShort> getAllByBookerId(int bookerId, String state, Cursor after, int size);
+
+    List<BookingDtoShort> getAllByOwnerId(int ownerId, String state, int from, int size);
+
+    List<BookingDtoShort> getAllByOwnerId(int ownerId, String state, Cursor after, int size);
 
-    List<BookingDto> getAllByOwnerId(int ownerId, String state, int from, int size);
+    void exportByOwnerId(int ownerId, Consumer<BookingDtoShort> action);
 
 }
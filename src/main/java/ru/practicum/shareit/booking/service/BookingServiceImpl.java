@@ -2,55 +2,89 @@ package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.admission.BookingIntervalIndex;
+import ru.practicum.shareit.booking.dto.BookingConfirmationDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoRequest;
+import ru.practicum.shareit.booking.dto.BookingDtoShort;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.BookingSlot;
+import ru.practicum.shareit.booking.repository.BookingVersion;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.MessageFailedException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidateException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.summary.ItemBookingSummaries;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.registry.UserRegistry;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
-import java.util.Comparator;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.springframework.data.jpa.domain.Specification.where;
+import static ru.practicum.shareit.booking.repository.BookingSpecifications.byBooker;
+import static ru.practicum.shareit.booking.repository.BookingSpecifications.byOwner;
+import static ru.practicum.shareit.booking.repository.BookingSpecifications.byState;
+import static ru.practicum.shareit.booking.repository.BookingSpecifications.startedBefore;
 
 @Service
 @Transactional(readOnly = true)
 @RequiredArgsConstructor
 @Slf4j
 public class BookingServiceImpl implements BookingService {
+    private static final Sort SORT_BY_START_DESC = Sort.by(Sort.Direction.DESC, "start", "id");
     private final BookingRepository bookingRepository;
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final UserRegistry userRegistry;
+    private final ItemBookingSummaries itemBookingSummaries;
 
     @Override
     public BookingDto getById(int bookingId, int ownerId) {
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new NotFoundException(String.format("Request with id = %s not found", bookingId)));
-        Item item = itemRepository.findById(booking.getItem().getId())
-                .orElseThrow(() -> new NotFoundException(String.format("Item with id = %s not found", booking.getItem().getId())));
-        if (booking.getBooker().getId() == ownerId || item.getOwnerId() == ownerId) {
+        if (booking.getBooker().getId() == ownerId || booking.getItem().getOwnerId() == ownerId) {
             log.info("Request found with id = {} (GetById())", booking.getId());
             return BookingMapper.toBookingDto(booking);
         }
         throw new NotFoundException("Only the author of the booking or the owner of the item can get the booking information");
     }
 
+    @Override
+    public String getETag(int bookingId, int userId) {
+        BookingVersion booking = bookingRepository.findVersionById(bookingId)
+                .orElseThrow(() -> new NotFoundException(String.format("Request with id = %s not found", bookingId)));
+        if (booking.getBookerId() != userId && booking.getOwnerId() != userId) {
+            throw new NotFoundException("Only the author of the booking or the owner of the item can get the booking information");
+        }
+        return String.format("booking-%s-%s-%s-%s", bookingId, booking.getVersion(), booking.getItemVersion(),
+                Integer.toHexString(Objects.hash(booking.getBookerName(), booking.getBookerEmail())));
+    }
+
     @Override
     @Transactional
     public BookingDto save(int bookerId, BookingDtoRequest bookingDtoRequest) {
@@ -68,6 +102,11 @@ public class BookingServiceImpl implements BookingService {
             throw new NotFoundException(String.format("You are the owner of the item with id = %s", item.getId()));
         }
         if (item.getAvailable()) {
+            bookingIntervalIndex.findConflict(item.getId(), bookingDto.getStart(), bookingDto.getEnd())
+                    .ifPresent(conflict -> {
+                        throw new ConflictException(String.format("Item with id = %s is already booked from %s to %s",
+                                item.getId(), conflict.getStart(), conflict.getEnd()));
+                    });
             Booking booking = BookingMapper.toBooking(bookingDto, item, booker);
             booking.setStatus(Status.WAITING);
             log.info("Request with id = {} saved (save())", booking.getId());
@@ -78,108 +117,179 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     @Transactional
-    public BookingDto confirmation(int bookingId, int bookerId, boolean approved) {
+    public BookingDto confirmation(int bookingId, int ownerId, boolean approved) {
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new NotFoundException(String.format("Request with id = %s not found", bookingId)));
-        userRepository.findById(bookerId)
-                .orElseThrow(() -> new NotFoundException(String.format("User with id = %s not found", bookerId)));
-        itemRepository.findById(booking.getItem().getId())
-                .orElseThrow(() -> new NotFoundException(String.format("Item with id = %s not found", booking.getItem().getId())));
+        if (booking.getItem().getOwnerId() != ownerId) {
+            throw new NotFoundException("Only the owner of the item can edit the booking status");
+        }
+        if (!booking.getStatus().equals(Status.WAITING)) {
+            throw new ValidateException("Changing the booking status is not available");
+        }
+        Status status = approved ? Status.APPROVED : Status.REJECTED;
+        if (approved) {
+            admit(booking);
+        }
+        if (bookingRepository.updateWaitingStatus(bookingId, ownerId, status) == 0) {
+            if (approved) {
+                bookingIntervalIndex.remove(booking);
+            }
+            throw new ConflictException(String.format("Booking with id = %s has already been confirmed", bookingId));
+        }
+        if (approved) {
+            itemBookingSummaries.refresh(booking.getItem().getId());
+        }
+        log.info("The booking status of the request with id = {} has been changed to {} (confirmation())", bookingId, status);
+        BookingDto bookingDto = BookingMapper.toBookingDto(booking);
+        bookingDto.setStatus(status);
+        return bookingDto;
+    }
 
-        if (booking.getItem().getOwnerId() == bookerId) {
-            if (booking.getStatus().equals(Status.WAITING)) {
-                booking.setStatus(approved ? Status.APPROVED : Status.REJECTED);
+    @Override
+    @Transactional
+    public List<BookingConfirmationDto> confirmAll(int ownerId, List<Integer> bookingIds, boolean approved) {
+        Status status = approved ? Status.APPROVED : Status.REJECTED;
+        Map<Integer, BookingSlot> slots = bookingRepository.findSlotsByIdIn(bookingIds).stream()
+                .collect(Collectors.toMap(BookingSlot::getId, Function.identity()));
+        Set<Integer> overlapping = approved && !slots.isEmpty()
+                ? new HashSet<>(bookingRepository.findIdsOverlappingApproved(slots.keySet()))
+                : Set.of();
+        Map<Integer, BookingConfirmationDto> results = new LinkedHashMap<>();
+        List<BookingSlot> admitted = new ArrayList<>();
+        for (int bookingId : bookingIds) {
+            if (results.containsKey(bookingId)) {
+                continue;
+            }
+            BookingSlot slot = slots.get(bookingId);
+            String error = rejectionReason(bookingId, slot, ownerId, approved && overlapping.contains(bookingId));
+            if (error == null && approved
+                    && !bookingIntervalIndex.tryAdd(slot.getItemId(), bookingId, slot.getStart(), slot.getEnd())) {
+                error = String.format("Booking with id = %s overlaps an approved booking of item with id = %s",
+                        bookingId, slot.getItemId());
+            }
+            if (error == null) {
+                admitted.add(slot);
+                results.put(bookingId, new BookingConfirmationDto(bookingId, status, null));
             } else {
-                throw new ValidateException("Changing the booking status is not available");
+                Status current = slot == null ? null : slot.getStatus();
+                results.put(bookingId, new BookingConfirmationDto(bookingId, current, error));
             }
-            log.info("The booking status of the request with id = {} has been changed to {} (confirmation())", booking.getId(), booking.getStatus());
-            return BookingMapper.toBookingDto(bookingRepository.save(booking));
         }
-        throw new NotFoundException("Only the owner of the item can edit the booking status");
+        if (!admitted.isEmpty()) {
+            List<Integer> admittedIds = admitted.stream()
+                    .map(BookingSlot::getId)
+                    .collect(Collectors.toList());
+            if (bookingRepository.updateWaitingStatuses(admittedIds, status) != admitted.size()) {
+                if (approved) {
+                    admitted.forEach(slot ->
+                            bookingIntervalIndex.remove(slot.getItemId(), slot.getId(), slot.getStart()));
+                }
+                throw new ConflictException("Some of the bookings have been confirmed concurrently, nothing was changed");
+            }
+            if (approved) {
+                admitted.stream()
+                        .map(BookingSlot::getItemId)
+                        .distinct()
+                        .forEach(itemBookingSummaries::refresh);
+            }
+        }
+        log.info("{} of {} bookings of the owner with id = {} have been changed to {} (confirmAll())",
+                admitted.size(), results.size(), ownerId, status);
+        return new ArrayList<>(results.values());
     }
 
     @Override
-    public List<BookingDto> getAllByBookerId(int bookerId, String state, int from, int size) {
-        validState(state);
-        userRepository.findById(bookerId)
-                .orElseThrow(() -> new NotFoundException(String.format("User with id = %s not found", bookerId)));
-        Page<Booking> bookings = bookingRepository.findAllByBookerId(bookerId, pagination(from, size));
-        if (bookings.isEmpty()) {
-            throw new NotFoundException("No bookings found");
-        } else {
-            log.info("All bookings of the user with id = {} (getAllByBookerId()) have been received", bookerId);
-            return filterByState(bookings.toSet(), BookingState.valueOf(state));
-        }
+    public List<BookingDtoShort> getAllByBookerId(int bookerId, String state, int from, int size) {
+        BookingState bookingState = validState(state);
+        userRegistry.requireExists(bookerId);
+        List<BookingDtoShort> bookings = findAll(byBooker(bookerId), bookingState, from, size);
+        log.info("All bookings of the user with id = {} (getAllByBookerId()) have been received", bookerId);
+        return bookings;
     }
 
     @Override
-    public List<BookingDto> getAllByOwnerId(int ownerId, String state, int from, int size) {
-        validState(state);
-        userRepository.findById(ownerId)
-                .orElseThrow(() -> new NotFoundException(String.format("User with id = %s not found", ownerId)));
-        Set<Booking> bookings = new HashSet<>(bookingRepository.findAllByOwnerId(ownerId, pagination(from, size)).toList());
-        if (bookings.isEmpty()) {
-            throw new NotFoundException("No bookings found");
-        } else {
-            log.info("All bookings of the user with id = {} have been received (getAllByOwnerId())", ownerId);
-            return filterByState(bookings, BookingState.valueOf(state));
-        }
-    }
-
-    private List<BookingDto> filterByState(Set<Booking> bookings, BookingState state) {
-        List<BookingDto> bookingList = null;
-        switch (state) {
-            case ALL:
-                bookingList = bookings.stream()
-                        .map(BookingMapper::toBookingDto)
-                        .collect(Collectors.toList());
-                break;
-            case WAITING:
-                bookingList = bookings.stream()
-                        .filter(booking -> booking.getStatus().equals(Status.WAITING))
-                        .map(BookingMapper::toBookingDto)
-                        .collect(Collectors.toList());
-                break;
-            case REJECTED:
-                bookingList = bookings.stream()
-                        .filter(booking -> booking.getStatus().equals(Status.REJECTED))
-                        .map(BookingMapper::toBookingDto)
-                        .collect(Collectors.toList());
-                break;
-            case PAST:
-                bookingList = bookings.stream()
-                        .filter(booking -> booking.getEnd().isBefore(LocalDateTime.now()))
-                        .map(BookingMapper::toBookingDto)
-                        .collect(Collectors.toList());
-                break;
-            case FUTURE:
-                bookingList = bookings.stream()
-                        .filter(booking -> booking.getStart().isAfter(LocalDateTime.now()))
-                        .map(BookingMapper::toBookingDto)
-                        .collect(Collectors.toList());
-                break;
-            case CURRENT:
-                bookingList = bookings.stream()
-                        .filter(booking -> booking.getStart().isBefore(LocalDateTime.now()) &&
-                                booking.getEnd().isAfter(LocalDateTime.now()))
-                        .map(BookingMapper::toBookingDto)
-                        .collect(Collectors.toList());
-                break;
-        }
-        return bookingList.stream().sorted(Comparator.comparing(BookingDto::getStart).reversed())
-                .collect(Collectors.toList());
-    }
-
-    private void validState(String state) {
+    public List<BookingDtoShort> getAllByBookerId(int bookerId, String state, Cursor after, int size) {
+        BookingState bookingState = validState(state);
+        userRegistry.requireExists(bookerId);
+        log.info("Bookings of the user with id = {} after cursor have been received (getAllByBookerId())", bookerId);
+        return findAll(byBooker(bookerId), bookingState, after, size);
+    }
+
+    @Override
+    public List<BookingDtoShort> getAllByOwnerId(int ownerId, String state, int from, int size) {
+        BookingState bookingState = validState(state);
+        userRegistry.requireExists(ownerId);
+        List<BookingDtoShort> bookings = findAll(byOwner(ownerId), bookingState, from, size);
+        log.info("All bookings of the user with id = {} have been received (getAllByOwnerId())", ownerId);
+        return bookings;
+    }
+
+    @Override
+    public List<BookingDtoShort> getAllByOwnerId(int ownerId, String state, Cursor after, int size) {
+        BookingState bookingState = validState(state);
+        userRegistry.requireExists(ownerId);
+        log.info("Bookings of the owner with id = {} after cursor have been received (getAllByOwnerId())", ownerId);
+        return findAll(byOwner(ownerId), bookingState, after, size);
+    }
+
+    @Override
+    public void exportByOwnerId(int ownerId, Consumer<BookingDtoShort> action) {
+        userRegistry.requireExists(ownerId);
+        try (Stream<BookingDtoShort> bookings = bookingRepository.streamAllShortByOwnerId(ownerId)) {
+            bookings.forEach(action);
+        }
+        log.info("The booking history of the owner with id = {} has been exported (exportByOwnerId())", ownerId);
+    }
+
+    private List<BookingDtoShort> findAll(Specification<Booking> specification, BookingState state, Cursor after,
+                                          int size) {
+        Specification<Booking> seek = where(specification)
+                .and(byState(state, LocalDateTime.now()))
+                .and(startedBefore(after.requireTimestamp(), after.getId()));
+        return bookingRepository.findAllShort(seek, PageRequest.of(0, size, SORT_BY_START_DESC));
+    }
+
+    private List<BookingDtoShort> findAll(Specification<Booking> specification, BookingState state, int from,
+                                          int size) {
+        return bookingRepository.findAllShort(where(specification)
+                .and(byState(state, LocalDateTime.now())), pagination(from, size));
+    }
+
+    private void admit(Booking booking) {
+        int itemId = booking.getItem().getId();
+        if (bookingRepository.existsApprovedOverlap(itemId, booking.getId(), booking.getStart(), booking.getEnd())
+                || !bookingIntervalIndex.tryAdd(booking)) {
+            throw new ConflictException(String.format("Booking with id = %s overlaps an approved booking of item with id = %s",
+                    booking.getId(), itemId));
+        }
+    }
+
+    private String rejectionReason(int bookingId, BookingSlot slot, int ownerId, boolean overlapping) {
+        if (slot == null) {
+            return String.format("Request with id = %s not found", bookingId);
+        }
+        if (slot.getOwnerId() != ownerId) {
+            return "Only the owner of the item can edit the booking status";
+        }
+        if (slot.getStatus() != Status.WAITING) {
+            return "Changing the booking status is not available";
+        }
+        if (overlapping) {
+            return String.format("Booking with id = %s overlaps an approved booking of item with id = %s",
+                    bookingId, slot.getItemId());
+        }
+        return null;
+    }
+
+    private BookingState validState(String state) {
         try {
-            BookingState.valueOf(state);
+            return BookingState.valueOf(state);
         } catch (IllegalArgumentException e) {
             throw new MessageFailedException(String.format("Unknown state: %s", state));
         }
     }
 
     private PageRequest pagination(int from, int size) {
-        int page = from < size ? 0 : from / size;
-        return PageRequest.of(page, size, Sort.by("start").descending());
+        return PageRequest.of(from / size, size, SORT_BY_START_DESC);
     }
 }
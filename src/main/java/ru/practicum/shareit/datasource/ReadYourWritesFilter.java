@@ -0,0 +1,65 @@
+package ru.practicum.shareit.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Keeps a user on the primary for the replication lag window after their own write, so they read
+ * what they have just written. Write requests (anything but GET, HEAD and OPTIONS) run on the
+ * primary entirely; reads of a user who has written within the window do as well, every other
+ * read-only transaction goes to the replica.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+    private static final long MAX_TRACKED_USERS = 100_000;
+
+    private final Cache<Integer, Boolean> recentWriters;
+
+    public ReadYourWritesFilter(Duration window) {
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .maximumSize(MAX_TRACKED_USERS)
+                .build();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Integer userId = userId(request);
+        boolean write = !SAFE_METHODS.contains(request.getMethod());
+        if (write || userId != null && recentWriters.getIfPresent(userId) != null) {
+            ReplicaRoutingDataSource.requirePrimary();
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReplicaRoutingDataSource.release();
+            if (write && userId != null) {
+                // the window starts once the write has committed
+                recentWriters.put(userId, Boolean.TRUE);
+            }
+        }
+    }
+
+    private static Integer userId(HttpServletRequest request) {
+        String header = request.getHeader(USER_HEADER);
+        if (header == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(header.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package ru.practicum.shareit.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Splits the data source into a primary and a read replica when
+ * {@code shareit.datasource.replica.jdbc-url} is set; otherwise the single auto-configured pool
+ * serves everything. The primary pool is configured by {@code spring.datasource.*} as before, the
+ * replica pool by {@code shareit.datasource.replica.*} (Hikari properties). Flyway migrates the
+ * primary only, the replica gets the schema through replication.
+ */
+@Configuration
+@EnableConfigurationProperties(ReplicaRoutingProperties.class)
+@ConditionalOnProperty(name = "shareit.datasource.replica.jdbc-url")
+public class ReplicaRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties(prefix = "spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties(prefix = "shareit.datasource.replica")
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica) {
+        return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primary, replica));
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(ReplicaRoutingProperties properties) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration = new FilterRegistrationBean<>(
+                new ReadYourWritesFilter(properties.getReadYourWritesWindow()));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 200);
+        return registration;
+    }
+}
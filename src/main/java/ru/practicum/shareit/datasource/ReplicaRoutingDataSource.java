@@ -0,0 +1,61 @@
+package ru.practicum.shareit.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Sends read-only transactions to the replica and everything else, including work outside a
+ * transaction, to the primary. The transaction's read-only flag is only known once it has begun,
+ * so this must sit behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}
+ * that defers fetching the connection to the first statement.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica) {
+        setTargetDataSources(Map.of(DataSourceRole.PRIMARY, primary, DataSourceRole.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    /**
+     * Routes the read-only transactions of the current thread to the primary as well, for work
+     * that must see writes the replica may not have applied yet.
+     */
+    public static void requirePrimary() {
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+    }
+
+    public static void release() {
+        PRIMARY_REQUIRED.remove();
+    }
+
+    /**
+     * Runs the action with {@link #requirePrimary()} in effect, restoring the previous routing after it.
+     * Used by reads whose results admit or reject later writes, such as the in-memory indexes loaded
+     * at startup: a lagging replica would make them miss committed rows.
+     */
+    public static void onPrimary(Runnable action) {
+        if (PRIMARY_REQUIRED.get() != null) {
+            action.run();
+            return;
+        }
+        requirePrimary();
+        try {
+            action.run();
+        } finally {
+            release();
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && PRIMARY_REQUIRED.get() == null) {
+            return DataSourceRole.REPLICA;
+        }
+        return DataSourceRole.PRIMARY;
+    }
+}
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.datasource;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "shareit.datasource")
+@Getter
+@Setter
+public class ReplicaRoutingProperties {
+    /**
+     * How long after a write its author keeps reading from the primary; should cover the
+     * replication lag.
+     */
+    private Duration readYourWritesWindow = Duration.ofSeconds(5);
+}
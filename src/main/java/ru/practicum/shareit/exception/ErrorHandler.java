@@ -2,6 +2,7 @@ package ru.practicum.shareit.exception;
 
 import lombok.extern.slf4j.Slf4j;
 import org.apache.catalina.connector.Response;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -24,6 +25,19 @@ public class ErrorHandler {
         return new ResponseEntity<>(HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler(ConflictException.class)
+    public ResponseEntity<Map<String, String>> handleException(ConflictException e) {
+        log.error("Error 409: {}", e.getMessage(), e.getCause());
+        return new ResponseEntity<>(Map.of("error", e.getMessage()), HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, String>> handleException(OptimisticLockingFailureException e) {
+        log.error("Error 409: {}", e.getMessage(), e.getCause());
+        return new ResponseEntity<>(Map.of("error", "The resource was changed by another request, reload it and retry"),
+                HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<Response> handleException(RuntimeException e) {
         log.error("Error 500: {}", e.getMessage(), e.getCause());
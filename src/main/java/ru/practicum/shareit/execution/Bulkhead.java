@@ -0,0 +1,51 @@
+package ru.practicum.shareit.execution;
+
+import lombok.Getter;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caps the number of concurrent calls of one endpoint family. A call that finds no free slot
+ * within the wait time is rejected instead of queueing behind the others.
+ */
+public class Bulkhead {
+    @Getter
+    private final String name;
+    @Getter
+    private final int limit;
+    private final Semaphore permits;
+    private final AtomicLong rejected = new AtomicLong();
+
+    public Bulkhead(String name, int limit) {
+        this.name = name;
+        this.limit = limit;
+        this.permits = new Semaphore(limit, true);
+    }
+
+    public boolean tryEnter(Duration maxWait) {
+        try {
+            if (permits.tryAcquire(maxWait.toNanos(), TimeUnit.NANOSECONDS)) {
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        rejected.incrementAndGet();
+        return false;
+    }
+
+    public void exit() {
+        permits.release();
+    }
+
+    public int getActive() {
+        return limit - permits.availablePermits();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+}
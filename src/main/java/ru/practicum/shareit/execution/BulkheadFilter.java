@@ -0,0 +1,116 @@
+package ru.practicum.shareit.execution;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Admits a request only while its endpoint family has a free slot, so a burst of slow requests
+ * of one family (typically search against a slow database) cannot occupy every container thread
+ * and stall the rest of the API. Rejected requests get 503 with {@code Retry-After}. For
+ * asynchronous requests, such as the streaming exports, the slot is held until the response
+ * completes.
+ */
+@Slf4j
+public class BulkheadFilter extends OncePerRequestFilter {
+    private static final UrlPathHelper PATH_HELPER = new UrlPathHelper();
+
+    private final Map<String, Bulkhead> bulkheads;
+    private final Duration maxWait;
+    private final ObjectMapper objectMapper;
+
+    public BulkheadFilter(Map<String, Bulkhead> bulkheads, Duration maxWait, ObjectMapper objectMapper) {
+        this.bulkheads = bulkheads;
+        this.maxWait = maxWait;
+        this.objectMapper = objectMapper;
+    }
+
+    static String familyOf(String path) {
+        if (path.startsWith("/items/search")) {
+            return "search";
+        }
+        int end = path.indexOf('/', 1);
+        return end == -1 ? path.substring(1) : path.substring(1, end);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Bulkhead bulkhead = bulkheads.get(familyOf(PATH_HELPER.getPathWithinApplication(request)));
+        if (bulkhead == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (!bulkhead.tryEnter(maxWait)) {
+            log.warn("Request {} {} rejected, all {} slots of {} are busy",
+                    request.getMethod(), request.getRequestURI(), bulkhead.getLimit(), bulkhead.getName());
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(),
+                    Map.of("error", String.format("Too many concurrent %s requests, try again later", bulkhead.getName())));
+            return;
+        }
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ExitListener(bulkhead));
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                bulkhead.exit();
+            }
+        }
+    }
+
+    private static class ExitListener implements AsyncListener {
+        private final Bulkhead bulkhead;
+        private boolean exited;
+
+        ExitListener(Bulkhead bulkhead) {
+            this.bulkhead = bulkhead;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            exit();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            exit();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            exit();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+
+        private synchronized void exit() {
+            if (!exited) {
+                exited = true;
+                bulkhead.exit();
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package ru.practicum.shareit.execution;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Switches request execution to {@link ExecutionMode#BULKHEAD} when
+ * {@code shareit.execution.mode=bulkhead}; in the default {@code sync} mode nothing is registered.
+ */
+@Configuration
+@EnableConfigurationProperties(ExecutionProperties.class)
+@ConditionalOnProperty(name = "shareit.execution.mode", havingValue = "bulkhead")
+public class ExecutionConfig {
+
+    @Bean
+    public FilterRegistrationBean<BulkheadFilter> bulkheadFilter(ExecutionProperties properties,
+                                                                 ObjectMapper objectMapper,
+                                                                 MeterRegistry meterRegistry) {
+        Map<String, Bulkhead> bulkheads = properties.getLimits().entrySet().stream()
+                .map(limit -> new Bulkhead(limit.getKey(), limit.getValue()))
+                .collect(Collectors.toMap(Bulkhead::getName, Function.identity()));
+        bulkheads.values().forEach(bulkhead -> {
+            Gauge.builder("shareit.bulkhead.active", bulkhead, Bulkhead::getActive)
+                    .tag("family", bulkhead.getName())
+                    .register(meterRegistry);
+            FunctionCounter.builder("shareit.bulkhead.rejected", bulkhead, Bulkhead::getRejected)
+                    .tag("family", bulkhead.getName())
+                    .register(meterRegistry);
+        });
+        FilterRegistrationBean<BulkheadFilter> registration = new FilterRegistrationBean<>(
+                new BulkheadFilter(bulkheads, properties.getMaxWait(), objectMapper));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 100);
+        return registration;
+    }
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.execution;
+
+public enum ExecutionMode {
+    /**
+     * Every request runs on the servlet container pool without further limits.
+     */
+    SYNC,
+    /**
+     * Requests still run on the container pool, but each endpoint family may only occupy a
+     * bounded number of its threads at a time.
+     */
+    BULKHEAD
+}
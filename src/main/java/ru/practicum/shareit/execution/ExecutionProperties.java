@@ -0,0 +1,25 @@
+package ru.practicum.shareit.execution;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "shareit.execution")
+@Getter
+@Setter
+public class ExecutionProperties {
+    private ExecutionMode mode = ExecutionMode.SYNC;
+    /**
+     * How long a request waits for a free slot of its family before it is rejected with 503.
+     */
+    private Duration maxWait = Duration.ofMillis(100);
+    /**
+     * Concurrent requests allowed per endpoint family, see {@link BulkheadFilter#familyOf(String)}.
+     * Families without a limit are not restricted.
+     */
+    private Map<String, Integer> limits = new LinkedHashMap<>();
+}
@@ -1,16 +1,55 @@
 package ru.practicum.shareit.item.comment;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Integer> {
 
+    /**
+     * Ids of the newest comments of each item, at most {@code perItem} per item. For each item the
+     * subquery walks the (item_id, id) index backwards to the {@code perItem}-th newest id, and the
+     * outer range scan reads only the comments from there on, so the cost per item is bounded by
+     * {@code perItem} whatever its number of comments. This is what a {@code LATERAL ... LIMIT}
+     * join does, written without LATERAL, which H2 does not support.
+     */
+    @Query(value = "select c.id " +
+            "from (select i.id as item_id, " +
+            "(select n.id from comments n " +
+            "where n.item_id = i.id " +
+            "order by n.id desc " +
+            "offset (:perItem - 1) rows fetch next 1 rows only) as oldest_id " +
+            "from items i " +
+            "where i.id in :itemIds) b " +
+            "join comments c on c.item_id = b.item_id " +
+            "and c.id >= coalesce(b.oldest_id, 0)", nativeQuery = true)
+    List<Integer> findNewestIdsByItemIdIn(Collection<Integer> itemIds, int perItem);
+
+    @Query("select c from Comment c " +
+            "join fetch c.author " +
+            "where c.id in :ids " +
+            "order by c.id desc")
+    List<Comment> findAllByIdIn(Collection<Integer> ids);
+
+    /**
+     * A page of the item's comments, newest first, starting below the comment id of the cursor.
+     */
     @Query("select c from Comment c " +
+            "join fetch c.author " +
             "where c.item.id = :itemId " +
-            "order by c.id ")
-    List<Comment> findAllByItemId(int itemId);
+            "and c.id < :beforeId " +
+            "order by c.id desc")
+    List<Comment> findPageByItemId(int itemId, int beforeId, Pageable pageable);
+
+    @Query("select c.item.id as itemId, count(c) as count from Comment c " +
+            "where c.item.id in :itemIds " +
+            "group by c.item.id")
+    List<CommentCount> countByItemIdIn(Collection<Integer> itemIds);
+
+    long countByItemId(int itemId);
 }
@@ -2,20 +2,31 @@ package ru.practicum.shareit.item.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import ru.practicum.shareit.exception.ValidateException;
 import ru.practicum.shareit.item.Create;
 import ru.practicum.shareit.item.Update;
 import ru.practicum.shareit.item.comment.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoInfo;
+import ru.practicum.shareit.item.importer.ItemCsvReader;
+import ru.practicum.shareit.item.importer.ItemImportReport;
+import ru.practicum.shareit.item.importer.ItemImportService;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.Cursor;
 
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.io.Reader;
 import java.util.List;
 
 
@@ -26,19 +37,35 @@ import java.util.List;
 @Validated
 public class ItemController {
     private final ItemService itemService;
+    private final ItemImportService itemImportService;
     private static final String X_SHARER_USER_ID = "X-Sharer-User-Id";
+    private static final String TEXT_CSV_VALUE = "text/csv";
+    private static final int MAX_IMPORT_SIZE = 10_000;
 
     @GetMapping
-    public List<ItemDtoInfo> getAll(@RequestHeader(X_SHARER_USER_ID) int userId,
-                                    @PositiveOrZero @RequestParam(defaultValue = "0") int from,
-                                    @Positive @RequestParam(defaultValue = "10") int size) {
+    public ResponseEntity<List<ItemDtoInfo>> getAll(@RequestHeader(X_SHARER_USER_ID) int userId,
+                                                    @PositiveOrZero @RequestParam(defaultValue = "0") int from,
+                                                    @Positive @RequestParam(defaultValue = "10") int size,
+                                                    @RequestParam(required = false) String after) {
         log.info("getAll() in ItemController");
-        return itemService.getAll(userId, from, size);
+        List<ItemDtoInfo> items = after == null
+                ? itemService.getAll(userId, from, size)
+                : itemService.getAll(userId, Cursor.decode(after), size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (items.size() == size) {
+            response.header(Cursor.HEADER, Cursor.encode(items.get(items.size() - 1).getId()));
+        }
+        return response.body(items);
     }
 
     @GetMapping("/{itemId}")
-    public ItemDtoInfo getById(@RequestHeader(X_SHARER_USER_ID) int userId, @PathVariable int itemId) {
+    public ItemDtoInfo getById(@RequestHeader(X_SHARER_USER_ID) int userId, @PathVariable int itemId,
+                               ServletWebRequest request) {
         log.info("getById() in ItemController");
+        request.getResponse().addHeader(HttpHeaders.VARY, X_SHARER_USER_ID);
+        if (request.checkNotModified(itemService.getETag(itemId, userId))) {
+            return null;
+        }
         return itemService.getById(itemId, userId);
     }
 
@@ -49,6 +76,23 @@ public class ItemController {
         return itemService.create(itemDto, userId);
     }
 
+    @PostMapping(path = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ItemImportReport importJson(@RequestHeader(X_SHARER_USER_ID) int userId,
+                                       @RequestBody @NotEmpty @Size(max = MAX_IMPORT_SIZE) List<ItemDto> items) {
+        log.info("importJson() in ItemController");
+        return itemImportService.importAll(userId, items);
+    }
+
+    @PostMapping(path = "/import", consumes = TEXT_CSV_VALUE)
+    public ItemImportReport importCsv(@RequestHeader(X_SHARER_USER_ID) int userId, Reader body) {
+        log.info("importCsv() in ItemController");
+        ItemCsvReader.Rows rows = ItemCsvReader.read(body);
+        if (rows.getItems().isEmpty() || rows.getItems().size() > MAX_IMPORT_SIZE) {
+            throw new ValidateException(String.format("Import must contain from 1 to %s items", MAX_IMPORT_SIZE));
+        }
+        return itemImportService.importAll(userId, rows.getItems(), rows.getErrors());
+    }
+
     @PatchMapping("/{itemId}")
     public ItemDto update(@Validated({Update.class}) @RequestBody ItemDto itemDto,
                           @RequestHeader(X_SHARER_USER_ID) int userId, @PathVariable int itemId) {
@@ -71,6 +115,20 @@ public class ItemController {
         return itemService.search(text, userId, from, size);
     }
 
+    @GetMapping("/{itemId}/comments")
+    public ResponseEntity<List<CommentDto>> getComments(@RequestHeader(X_SHARER_USER_ID) int userId,
+                                                        @PathVariable int itemId,
+                                                        @Positive @RequestParam(defaultValue = "10") int size,
+                                                        @RequestParam(required = false) String after) {
+        log.info("getComments() in ItemController");
+        List<CommentDto> comments = itemService.getComments(itemId, after == null ? null : Cursor.decode(after), size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (comments.size() == size) {
+            response.header(Cursor.HEADER, Cursor.encode(comments.get(comments.size() - 1).getId()));
+        }
+        return response.body(comments);
+    }
+
     @PostMapping("/{itemId}/comment")
     public CommentDto addComment(@RequestHeader(X_SHARER_USER_ID) int userId, @PathVariable int itemId,
                                  @Valid @RequestBody CommentDto comment) {
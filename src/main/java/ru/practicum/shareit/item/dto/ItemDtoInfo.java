@@ -17,6 +17,7 @@ public class ItemDtoInfo {
     private BookingDtoForItem lastBooking;
     private BookingDtoForItem nextBooking;
     private List<CommentDto> comments;
+    private long commentCount;
 
     public ItemDtoInfo(int id, String name, String description, Boolean available) {
         this.id = id;
@@ -0,0 +1,167 @@
+package ru.practicum.shareit.item.importer;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.experimental.UtilityClass;
+import ru.practicum.shareit.exception.ValidateException;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads items from CSV with a header row naming the columns {@code name}, {@code description},
+ * {@code available} and, optionally, {@code requestId}, in any order. Fields may be quoted,
+ * with {@code ""} standing for a quote inside a quoted field. Empty fields become {@code null}
+ * and are reported per row by the import, as are rows with values that cannot be parsed; only a
+ * missing header or an unterminated quote rejects the whole file.
+ */
+@UtilityClass
+public class ItemCsvReader {
+    private static final List<String> REQUIRED_COLUMNS = List.of("name", "description", "available");
+
+    public static Rows read(Reader reader) {
+        List<List<String>> records = parse(reader);
+        if (records.isEmpty()) {
+            throw new ValidateException("CSV header is missing");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> header = records.get(0);
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim(), i);
+        }
+        for (String column : REQUIRED_COLUMNS) {
+            if (!columns.containsKey(column)) {
+                throw new ValidateException(String.format("CSV column %s is missing", column));
+            }
+        }
+        List<ItemDto> items = new ArrayList<>(records.size() - 1);
+        List<ItemImportReport.RowError> errors = new ArrayList<>();
+        for (int row = 1; row < records.size(); row++) {
+            List<String> record = records.get(row);
+            if (record.size() != header.size()) {
+                items.add(null);
+                errors.add(new ItemImportReport.RowError(row, String.format("Row has %s fields instead of %s",
+                        record.size(), header.size())));
+                continue;
+            }
+            List<String> rowErrors = new ArrayList<>();
+            items.add(new ItemDto(0,
+                    field(record, columns.get("name")),
+                    field(record, columns.get("description")),
+                    toBoolean(field(record, columns.get("available")), rowErrors),
+                    toInteger(field(record, columns.get("requestId")), rowErrors)));
+            if (!rowErrors.isEmpty()) {
+                errors.add(new ItemImportReport.RowError(row, String.join(", ", rowErrors)));
+            }
+        }
+        return new Rows(items, errors);
+    }
+
+    private static String field(List<String> record, Integer column) {
+        if (column == null) {
+            return null;
+        }
+        String value = record.get(column);
+        return value.isEmpty() ? null : value;
+    }
+
+    private static Boolean toBoolean(String value, List<String> errors) {
+        if (value == null) {
+            return null;
+        }
+        if (value.equalsIgnoreCase("true")) {
+            return true;
+        }
+        if (value.equalsIgnoreCase("false")) {
+            return false;
+        }
+        errors.add(String.format("available must be true or false, got %s", value));
+        return null;
+    }
+
+    private static Integer toInteger(String value, List<String> errors) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            errors.add(String.format("requestId must be a number, got %s", value));
+            return null;
+        }
+    }
+
+    private static List<List<String>> parse(Reader reader) {
+        List<List<String>> records = new ArrayList<>();
+        List<String> record = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean empty = true;
+        try {
+            int c = reader.read();
+            while (c != -1) {
+                int next = reader.read();
+                if (quoted) {
+                    if (c == '"' && next == '"') {
+                        field.append('"');
+                        next = reader.read();
+                    } else if (c == '"') {
+                        quoted = false;
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                    empty = false;
+                } else if (c == ',') {
+                    record.add(field.toString());
+                    field.setLength(0);
+                    empty = false;
+                } else if (c == '\n' || c == '\r') {
+                    if (c == '\r' && next == '\n') {
+                        next = reader.read();
+                    }
+                    if (!empty || field.length() > 0) {
+                        record.add(field.toString());
+                        records.add(record);
+                    }
+                    record = new ArrayList<>();
+                    field.setLength(0);
+                    empty = true;
+                } else {
+                    field.append((char) c);
+                    empty = false;
+                }
+                c = next;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (quoted) {
+            throw new ValidateException("CSV ends inside a quoted field");
+        }
+        if (!empty || field.length() > 0) {
+            record.add(field.toString());
+            records.add(record);
+        }
+        return records;
+    }
+
+    /**
+     * The items in row order and the rows that could not be read. A row that could not be read
+     * keeps its place in {@code items}, with the unreadable fields left {@code null}, so the item
+     * at index {@code i} is row {@code i + 1}.
+     */
+    @Data
+    @AllArgsConstructor
+    public static class Rows {
+        private List<ItemDto> items;
+        private List<ItemImportReport.RowError> errors;
+    }
+}
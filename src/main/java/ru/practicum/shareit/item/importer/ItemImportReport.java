@@ -0,0 +1,28 @@
+package ru.practicum.shareit.item.importer;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk import: ids of the created items in row order and the rows that were
+ * skipped. Rows are numbered from {@code 1}, not counting the CSV header.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ItemImportReport {
+    private int imported;
+    private List<Integer> ids;
+    private List<RowError> errors;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class RowError {
+        private int row;
+        private String error;
+    }
+}
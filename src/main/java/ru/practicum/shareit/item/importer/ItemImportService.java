@@ -0,0 +1,15 @@
+package ru.practicum.shareit.item.importer;
+
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.List;
+
+public interface ItemImportService {
+    ItemImportReport importAll(int ownerId, List<ItemDto> items);
+
+    /**
+     * Imports the items except the rows listed in {@code rowErrors}, which are reported with
+     * their error as they are.
+     */
+    ItemImportReport importAll(int ownerId, List<ItemDto> items, List<ItemImportReport.RowError> rowErrors);
+}
@@ -0,0 +1,131 @@
+package ru.practicum.shareit.item.importer;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.Create;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.summary.ItemBookingSummaries;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.transaction.AfterTransaction;
+import ru.practicum.shareit.user.registry.UserRegistry;
+
+import javax.persistence.EntityManager;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@Transactional
+@RequiredArgsConstructor
+@Slf4j
+public class ItemImportServiceImpl implements ItemImportService {
+    /**
+     * Items written between two flushes. A multiple of {@code hibernate.jdbc.batch_size}, so every
+     * flush sends full insert batches; clearing afterwards keeps the persistence context small.
+     */
+    static final int CHUNK_SIZE = 500;
+
+    private final ItemRepository itemRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearchIndex itemSearchIndex;
+    private final ItemBookingSummaries itemBookingSummaries;
+    private final UserRegistry userRegistry;
+    private final Validator validator;
+    private final EntityManager entityManager;
+
+    @Override
+    public ItemImportReport importAll(int ownerId, List<ItemDto> items) {
+        return importAll(ownerId, items, List.of());
+    }
+
+    @Override
+    public ItemImportReport importAll(int ownerId, List<ItemDto> items, List<ItemImportReport.RowError> rowErrors) {
+        userRegistry.requireExists(ownerId);
+        Map<Integer, String> unreadable = rowErrors.stream()
+                .collect(Collectors.toMap(ItemImportReport.RowError::getRow, ItemImportReport.RowError::getError));
+        Map<Integer, ItemRequest> requests = findRequests(items);
+        List<Item> chunk = new ArrayList<>(CHUNK_SIZE);
+        List<Item> imported = new ArrayList<>(items.size());
+        List<ItemImportReport.RowError> errors = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            ItemDto itemDto = items.get(i);
+            String error = unreadable.containsKey(i + 1) ? unreadable.get(i + 1) : rejectionReason(itemDto, requests);
+            if (error != null) {
+                errors.add(new ItemImportReport.RowError(i + 1, error));
+                continue;
+            }
+            Item item = ItemMapper.toItem(itemDto);
+            item.setId(0);
+            item.setOwnerId(ownerId);
+            item.setItemRequest(itemDto.getRequestId() == null ? null : requests.get(itemDto.getRequestId()));
+            chunk.add(item);
+            if (chunk.size() == CHUNK_SIZE) {
+                imported.addAll(write(chunk));
+            }
+        }
+        imported.addAll(write(chunk));
+        AfterTransaction.afterCommit(() -> itemSearchIndex.putAll(imported));
+        List<Integer> ids = imported.stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+        log.info("{} of {} items imported for the owner with id = {} (importAll())", ids.size(), items.size(), ownerId);
+        return new ItemImportReport(ids.size(), ids, errors);
+    }
+
+    private List<Item> write(List<Item> chunk) {
+        if (chunk.isEmpty()) {
+            return List.of();
+        }
+        List<Item> saved = new ArrayList<>(itemRepository.saveAll(chunk));
+        entityManager.flush();
+        entityManager.clear();
+        chunk.clear();
+        itemBookingSummaries.created(saved.stream()
+                .map(Item::getId)
+                .collect(Collectors.toList()));
+        return saved;
+    }
+
+    private Map<Integer, ItemRequest> findRequests(List<ItemDto> items) {
+        Set<Integer> requestIds = items.stream()
+                .filter(Objects::nonNull)
+                .map(ItemDto::getRequestId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (requestIds.isEmpty()) {
+            return Map.of();
+        }
+        return itemRequestRepository.findAllById(requestIds).stream()
+                .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
+    }
+
+    private String rejectionReason(ItemDto itemDto, Map<Integer, ItemRequest> requests) {
+        if (itemDto == null) {
+            return "Item is empty";
+        }
+        Set<ConstraintViolation<ItemDto>> violations = validator.validate(itemDto, Create.class);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+        }
+        if (itemDto.getRequestId() != null && !requests.containsKey(itemDto.getRequestId())) {
+            return String.format("Request for item with id = %s not found", itemDto.getRequestId());
+        }
+        return null;
+    }
+}
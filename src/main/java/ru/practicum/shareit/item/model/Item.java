@@ -1,9 +1,10 @@
 package ru.practicum.shareit.item.model;
 
-import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import ru.practicum.shareit.request.model.ItemRequest;
 
 import javax.persistence.*;
@@ -12,14 +13,16 @@ import javax.validation.constraints.NotNull;
 
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "items")
 @Table(name = "items", schema = "public")
 @Data
-@AllArgsConstructor
 @NoArgsConstructor
 @EqualsAndHashCode(of = "id")
 public class Item {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "items_seq")
+    @SequenceGenerator(name = "items_seq", sequenceName = "items_seq", allocationSize = 50)
     private int id;
     @NotBlank
     private String name;
@@ -32,6 +35,17 @@ public class Item {
     @ManyToOne
     @JoinColumn(name = "request_id")
     private ItemRequest itemRequest;
+    @Version
+    private long version;
+
+    public Item(int id, String name, String description, Boolean available, int ownerId, ItemRequest itemRequest) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.available = available;
+        this.ownerId = ownerId;
+        this.itemRequest = itemRequest;
+    }
 
     public Item(int id, String name, String description, Boolean available, ItemRequest itemRequest) {
         this.id = id;
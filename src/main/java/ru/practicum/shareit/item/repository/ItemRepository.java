@@ -2,25 +2,37 @@ package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.model.Item;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Integer> {
-    @Query("select i from Item i " +
-            "where i.available = true " +
-            "and (upper(i.name) like upper(concat('%', :text, '%')) or " +
-            "upper(i.description) like upper(concat('%', :text, '%')))")
-    Page<Item> search(String text, Pageable page);
-
     Page<Item> findAllByOwnerId(int ownerId, Pageable page);
 
+    Slice<Item> findAllByOwnerIdAndIdGreaterThan(int ownerId, int id, Pageable page);
+
     @Query(" select i from Item i " +
-            "where i.itemRequest.id = :itemRequestId " +
+            "where i.itemRequest.id in :itemRequestIds " +
             "order by i.id desc")
-    List<Item> findItemByItemRequestId(int itemRequestId);
+    List<Item> findAllByItemRequestIdIn(Collection<Integer> itemRequestIds);
+
+    /**
+     * Items that {@code ON DELETE CASCADE} removes together with the user: the user's own items and
+     * the items offered in answer to the user's requests.
+     */
+    @Query("select i.id from Item i " +
+            "where i.ownerId = :userId " +
+            "or i.itemRequest.id in (select r.id from ItemRequest r where r.requester.id = :userId)")
+    List<Integer> findIdsRemovedWithUser(int userId);
+
+    @Query("select count(i) as total, coalesce(sum(i.id), 0) as idSum, coalesce(sum(i.version), 0) as versionSum " +
+            "from Item i " +
+            "where i.itemRequest.id = :itemRequestId")
+    ItemVersions findVersionsByItemRequestId(int itemRequestId);
 }
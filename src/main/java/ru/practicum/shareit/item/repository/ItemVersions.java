@@ -0,0 +1,12 @@
+package ru.practicum.shareit.item.repository;
+
+/**
+ * Aggregate over a set of items that changes whenever one of them is added, edited or removed.
+ */
+public interface ItemVersions {
+    long getTotal();
+
+    long getIdSum();
+
+    long getVersionSum();
+}
@@ -0,0 +1,296 @@
+package ru.practicum.shareit.item.search;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.datasource.ReplicaRoutingDataSource;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory trigram index over item names and descriptions. Only available items are
+ * searchable; every candidate found through the posting lists is verified with a substring
+ * match, so results are the same as for a {@code like '%text%'} query.
+ * <p>
+ * Result pages are cached per lower-cased text, offset and limit. A write drops exactly the
+ * cached queries that the old or the new version of the item matches; a write that leaves name,
+ * description and availability unchanged drops nothing. Batches are invalidated in one pass over
+ * the cache, and a bulk load such as an import simply drops the whole cache.
+ */
+@Component
+@Slf4j
+public class ItemSearchIndex implements SmartInitializingSingleton {
+    private static final int GRAM_LENGTH = 3;
+    private static final long DEFAULT_RESULT_CACHE_SIZE = 10_000;
+
+    private final ItemRepository itemRepository;
+    private final Map<Integer, Document> documents = new ConcurrentHashMap<>();
+    private final Map<String, Set<Integer>> postings = new ConcurrentHashMap<>();
+    @Getter
+    private final Cache<Query, List<ItemDto>> resultCache;
+    private final LongAdder invalidations = new LongAdder();
+    /**
+     * Incremented by every write. A search result computed while it changed is not cached,
+     * since the write may have missed it when invalidating.
+     */
+    private volatile long writes;
+
+    public ItemSearchIndex(ItemRepository itemRepository) {
+        this(itemRepository, DEFAULT_RESULT_CACHE_SIZE);
+    }
+
+    @Autowired
+    public ItemSearchIndex(ItemRepository itemRepository,
+                           @Value("${shareit.search.result-cache-size:10000}") long resultCacheSize) {
+        this.itemRepository = itemRepository;
+        this.resultCache = Caffeine.newBuilder()
+                .maximumSize(resultCacheSize)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Runs before the web server starts, so the first searches already see every item.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    public synchronized void rebuild() {
+        writes++;
+        documents.clear();
+        postings.clear();
+        resultCache.invalidateAll();
+        ReplicaRoutingDataSource.onPrimary(() -> itemRepository.findAll()
+                .forEach(item -> index(new Document(item))));
+        log.info("Search index rebuilt with {} items", documents.size());
+    }
+
+    public synchronized Document put(Item item) {
+        writes++;
+        Document document = new Document(item);
+        Document previous = index(document);
+        if (previous == null || !previous.sameContent(document)) {
+            invalidate(Arrays.asList(previous, document));
+        }
+        return previous;
+    }
+
+    /**
+     * Indexes many new items at once. Matching every cached query against every row would cost
+     * more than recomputing the few queries that are asked again, so the result cache is dropped.
+     */
+    public synchronized void putAll(Collection<Item> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+        writes++;
+        items.forEach(item -> index(new Document(item)));
+        invalidations.add(resultCache.estimatedSize());
+        resultCache.invalidateAll();
+    }
+
+    public synchronized Document remove(int itemId) {
+        writes++;
+        Document previous = documents.remove(itemId);
+        unindex(previous);
+        invalidate(Collections.singletonList(previous));
+        return previous;
+    }
+
+    public synchronized void removeAll(Collection<Integer> itemIds) {
+        writes++;
+        List<Document> removed = new ArrayList<>();
+        itemIds.forEach(itemId -> {
+            Document previous = documents.remove(itemId);
+            unindex(previous);
+            removed.add(previous);
+        });
+        invalidate(removed);
+    }
+
+    public long getInvalidations() {
+        return invalidations.sum();
+    }
+
+    public List<ItemDto> search(String text, int offset, int limit) {
+        Query key = new Query(text.toLowerCase(Locale.ROOT), offset, limit);
+        List<ItemDto> cached = resultCache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        long version = writes;
+        List<ItemDto> result = find(key.getText(), offset, limit);
+        synchronized (this) {
+            if (writes == version) {
+                resultCache.put(key, result);
+            }
+        }
+        return result;
+    }
+
+    private List<ItemDto> find(String query, int offset, int limit) {
+        return candidates(query).stream()
+                .map(documents::get)
+                .filter(Objects::nonNull)
+                .filter(Document::isAvailable)
+                .filter(document -> document.score(query) > 0)
+                .sorted(Comparator.comparingInt((Document document) -> document.score(query)).reversed()
+                        .thenComparingInt(Document::getId))
+                .skip(offset)
+                .limit(limit)
+                .map(Document::toItemDto)
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    private Document index(Document document) {
+        Document previous = documents.put(document.getId(), document);
+        unindex(previous);
+        if (document.isAvailable()) {
+            document.grams().forEach(gram -> postings.computeIfAbsent(gram, g -> ConcurrentHashMap.newKeySet())
+                    .add(document.getId()));
+        }
+        return previous;
+    }
+
+    /**
+     * Drops the cached queries matched by any of the given versions, in a single pass over the cache.
+     */
+    private void invalidate(Collection<Document> changed) {
+        List<Document> searchable = changed.stream()
+                .filter(document -> document != null && document.isAvailable())
+                .collect(Collectors.toList());
+        if (searchable.isEmpty()) {
+            return;
+        }
+        resultCache.asMap().keySet().removeIf(query -> {
+            if (searchable.stream().anyMatch(document -> document.score(query.getText()) > 0)) {
+                invalidations.increment();
+                return true;
+            }
+            return false;
+        });
+    }
+
+    private Collection<Integer> candidates(String query) {
+        if (query.length() < GRAM_LENGTH) {
+            return documents.keySet();
+        }
+        List<Set<Integer>> lists = gramsOf(query).stream()
+                .map(gram -> postings.getOrDefault(gram, Set.of()))
+                .sorted(Comparator.comparingInt(Set::size))
+                .collect(Collectors.toList());
+        return lists.get(0).stream()
+                .filter(id -> lists.stream().allMatch(list -> list.contains(id)))
+                .collect(Collectors.toList());
+    }
+
+    private void unindex(Document document) {
+        if (document == null) {
+            return;
+        }
+        document.grams().forEach(gram -> {
+            Set<Integer> ids = postings.get(gram);
+            if (ids != null) {
+                ids.remove(document.getId());
+                if (ids.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        });
+    }
+
+    private static Set<String> gramsOf(String value) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= value.length(); i++) {
+            grams.add(value.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    @Getter
+    public static class Document {
+        private final int id;
+        private final int ownerId;
+        private final String name;
+        private final String description;
+        private final boolean available;
+        private final Integer requestId;
+        private final String nameKey;
+        private final String descriptionKey;
+
+        private Document(Item item) {
+            id = item.getId();
+            ownerId = item.getOwnerId();
+            name = item.getName();
+            description = item.getDescription();
+            available = Boolean.TRUE.equals(item.getAvailable());
+            requestId = item.getItemRequest() == null ? null : item.getItemRequest().getId();
+            nameKey = name == null ? "" : name.toLowerCase(Locale.ROOT);
+            descriptionKey = description == null ? "" : description.toLowerCase(Locale.ROOT);
+        }
+
+        private int score(String query) {
+            if (nameKey.equals(query)) {
+                return 4;
+            }
+            if (nameKey.startsWith(query)) {
+                return 3;
+            }
+            if (nameKey.contains(query)) {
+                return 2;
+            }
+            return descriptionKey.contains(query) ? 1 : 0;
+        }
+
+        private boolean sameContent(Document other) {
+            return available == other.available
+                    && Objects.equals(name, other.name)
+                    && Objects.equals(description, other.description)
+                    && Objects.equals(requestId, other.requestId);
+        }
+
+        private Set<String> grams() {
+            Set<String> grams = gramsOf(nameKey);
+            grams.addAll(gramsOf(descriptionKey));
+            return grams;
+        }
+
+        private ItemDto toItemDto() {
+            return new ItemDto(id, name, description, available, requestId);
+        }
+    }
+
+    @Getter
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    public static class Query {
+        private final String text;
+        private final int offset;
+        private final int limit;
+    }
+}
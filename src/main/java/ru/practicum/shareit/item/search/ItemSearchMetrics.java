@@ -0,0 +1,27 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes the search result cache as {@code cache.*} meters with {@code cache=item-search}
+ * (hits, misses, evictions, size) and the number of entries dropped by item writes as
+ * {@code shareit.search.invalidations}. Hit ratio is {@code cache.gets{result=hit}} over all gets.
+ */
+@Component
+@RequiredArgsConstructor
+public class ItemSearchMetrics implements MeterBinder {
+    private final ItemSearchIndex itemSearchIndex;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, itemSearchIndex.getResultCache(), "item-search");
+        FunctionCounter.builder("shareit.search.invalidations", itemSearchIndex, ItemSearchIndex::getInvalidations)
+                .description("Cached search results dropped because an item they may contain changed")
+                .register(registry);
+    }
+}
@@ -3,14 +3,23 @@ package ru.practicum.shareit.item.service;
 import ru.practicum.shareit.item.comment.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoInfo;
+import ru.practicum.shareit.pagination.Cursor;
 
 import java.util.List;
 
 public interface ItemService {
     List<ItemDtoInfo> getAll(int userId, int from, int size);
 
+    List<ItemDtoInfo> getAll(int userId, Cursor after, int size);
+
     ItemDtoInfo getById(int itemId, int ownerId);
 
+    /**
+     * Entity tag of {@link #getById(int, int)} for the same arguments, derived from versions and
+     * counters without building the item view.
+     */
+    String getETag(int itemId, int userId);
+
     ItemDto create(ItemDto itemDto, int userId);
 
     ItemDto edit(ItemDto item, int userId, int id);
@@ -20,4 +29,10 @@ public interface ItemService {
     List<ItemDto> search(String text, int userId, int from, int size);
 
     CommentDto addComment(int userId, int itemId, CommentDto commentDto);
+
+    /**
+     * Comments of the item, newest first, below the comment id of the cursor ({@code null} for the
+     * first page).
+     */
+    List<CommentDto> getComments(int itemId, Cursor after, int size);
 }
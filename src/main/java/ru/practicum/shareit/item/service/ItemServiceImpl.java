@@ -6,8 +6,9 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingDtoForItem;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
-import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidateException;
@@ -20,13 +21,21 @@ import ru.practicum.shareit.item.dto.ItemDtoInfo;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.summary.ItemBookingSummaries;
+import ru.practicum.shareit.item.summary.ItemBookingSummary;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.transaction.AfterTransaction;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.registry.UserRegistry;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -34,19 +43,30 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 @Slf4j
 public class ItemServiceImpl implements ItemService {
+    static final int NEWEST_COMMENTS = 10;
+
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearchIndex itemSearchIndex;
+    private final UserRegistry userRegistry;
+    private final ItemBookingSummaries itemBookingSummaries;
 
     @Override
     public List<ItemDtoInfo> getAll(int ownerId, int from, int size) {
-        userRepository.findById(ownerId);
+        List<Item> items = itemRepository.findAllByOwnerId(ownerId, pagination(from, size)).toList();
         log.info("All the user's items were received with id = {} (getAll())", ownerId);
-        return itemRepository.findAllByOwnerId(ownerId, pagination(from, size)).stream()
-                .map(i -> toItemDtoInfo(i, ownerId))
-                .collect(Collectors.toList());
+        return toItemDtoInfo(items, ownerId);
+    }
+
+    @Override
+    public List<ItemDtoInfo> getAll(int ownerId, Cursor after, int size) {
+        List<Item> items = itemRepository.findAllByOwnerIdAndIdGreaterThan(ownerId, after.getId(),
+                PageRequest.of(0, size, Sort.by(Sort.Direction.ASC, "id"))).getContent();
+        log.info("The user's items after cursor were received with id = {} (getAll())", ownerId);
+        return toItemDtoInfo(items, ownerId);
     }
 
     @Override
@@ -54,13 +74,36 @@ public class ItemServiceImpl implements ItemService {
         Item item = itemRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException(String.format("Item with id = %s not found", id)));
         log.info("Found a thing with id = {} (getById())", id);
-        return toItemDtoInfo(item, ownerId);
+        return toItemDtoInfo(List.of(item), ownerId).get(0);
+    }
+
+    /**
+     * The owner's view also shows the last and next booking, which change without any write to
+     * the item when a booking starts or ends, so their ids are part of the owner's tag.
+     */
+    @Override
+    public String getETag(int itemId, int userId) {
+        Item item = itemRepository.findById(itemId)
+                .orElseThrow(() -> new NotFoundException(String.format("Item with id = %s not found", itemId)));
+        Map<Integer, ItemBookingSummary> summaries = itemBookingSummaries.findAll(List.of(itemId));
+        long commentCount = summaries.containsKey(itemId)
+                ? summaries.get(itemId).getCommentCount()
+                : commentRepository.countByItemId(itemId);
+        String eTag = String.format("item-%s-%s-%s", itemId, item.getVersion(), commentCount);
+        if (item.getOwnerId() != userId) {
+            return eTag;
+        }
+        Map<Integer, BookingDtoForItem> lastBookings = new HashMap<>();
+        Map<Integer, BookingDtoForItem> nextBookings = new HashMap<>();
+        putLastAndNextBookings(List.of(item), userId, summaries, lastBookings, nextBookings);
+        return String.format("%s-owner-%s-%s", eTag, bookingId(lastBookings.get(itemId)),
+                bookingId(nextBookings.get(itemId)));
     }
 
     @Override
+    @Transactional
     public ItemDto create(ItemDto itemDto, int userId) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException(String.format("User c id = %s has no bookings", userId)));
+        userRegistry.requireExists(userId);
         Item item = ItemMapper.toItem(itemDto);
         if (itemDto.getRequestId() != null) {
             item.setItemRequest(itemRequestRepository.findById(itemDto.getRequestId())
@@ -68,14 +111,16 @@ public class ItemServiceImpl implements ItemService {
                             itemDto.getRequestId()))));
         }
         item.setOwnerId(userId);
-        log.info("Item with id = {} saved (create())", item.getId());
-        return ItemMapper.toItemDto(itemRepository.save(item));
+        Item savedItem = itemRepository.save(item);
+        itemBookingSummaries.created(List.of(savedItem.getId()));
+        AfterTransaction.afterCommit(() -> itemSearchIndex.put(savedItem));
+        log.info("Item with id = {} saved (create())", savedItem.getId());
+        return ItemMapper.toItemDto(savedItem);
     }
 
     @Override
     @Transactional
     public ItemDto edit(ItemDto itemDto, int userId, int itemId) {
-        userRepository.findById(userId);
         Item oldItem = itemRepository.findById(itemId)
                 .orElseThrow(() -> new NotFoundException(String.format("Item with id = %s not found", itemId)));
         if (oldItem.getOwnerId() == userId) {
@@ -88,15 +133,19 @@ public class ItemServiceImpl implements ItemService {
             if (itemDto.getAvailable() != null) {
                 oldItem.setAvailable(itemDto.getAvailable());
             }
+            Item savedItem = itemRepository.save(oldItem);
+            AfterTransaction.afterCommit(() -> itemSearchIndex.put(savedItem));
             log.info("Data about the item with id = {} updated (edit())", oldItem.getId());
-            return ItemMapper.toItemDto(itemRepository.save(oldItem));
+            return ItemMapper.toItemDto(savedItem);
         }
         throw new NotFoundException("Only the owner of the item can edit information about it");
     }
 
     @Override
+    @Transactional
     public void delete(int id) {
         itemRepository.deleteById(id);
+        AfterTransaction.afterCommit(() -> itemSearchIndex.remove(id));
         log.info("Item with id = {} deleted", id);
     }
 
@@ -104,14 +153,23 @@ public class ItemServiceImpl implements ItemService {
     public List<ItemDto> search(String text, int userId, int from, int size) {
         List<ItemDto> listItem = new ArrayList<>();
         if (!text.isEmpty()) {
-            listItem = itemRepository.search(text, pagination(from, size)).stream()
-                    .map(ItemMapper::toItemDto)
-                    .collect(Collectors.toList());
+            listItem = itemSearchIndex.search(text, from / size * size, size);
         }
         log.info("Search with the text = {} parameter", text);
         return listItem;
     }
 
+    @Override
+    public List<CommentDto> getComments(int itemId, Cursor after, int size) {
+        itemRepository.findById(itemId)
+                .orElseThrow(() -> new NotFoundException(String.format("Item with id = %s not found", itemId)));
+        int beforeId = after == null ? Integer.MAX_VALUE : after.getId();
+        log.info("Comments of the item with id = {} were received (getComments())", itemId);
+        return commentRepository.findPageByItemId(itemId, beforeId, PageRequest.of(0, size)).stream()
+                .map(CommentMapper::toCommentDto)
+                .collect(Collectors.toList());
+    }
+
     @Override
     @Transactional
     public CommentDto addComment(int userId, int itemId, CommentDto commentDto) {
@@ -119,35 +177,107 @@ public class ItemServiceImpl implements ItemService {
                 .orElseThrow(() -> new NotFoundException(String.format("Item with id = %s not found", itemId)));
         User author = userRepository.findById(userId)
                 .orElseThrow(() -> new NotFoundException(String.format("User with id = %s not found", userId)));
-        Booking booking = bookingRepository.findAllByBookerId(userId).stream()
-                .filter(b -> b.getItem().getId() == itemId)
-                .filter(b -> b.getEnd().isBefore(LocalDateTime.now()))
-                .findFirst()
-                .orElseThrow(() -> new ValidateException(String.format("User c id = %s has no bookings", userId)));
-
-        if (booking.getBooker().getId() == userId) {
-            Comment comment = CommentMapper.toComment(commentDto, item, author, LocalDateTime.now());
-            log.info("Added a comment on a thing with id = {} by a user with id = {}", itemId, userId);
-            return CommentMapper.toCommentDto(commentRepository.save(comment));
+        if (!bookingRepository.existsByBookerIdAndItemIdAndStatusAndEndBefore(userId, itemId, Status.APPROVED,
+                LocalDateTime.now())) {
+            throw new ValidateException("Only the user who rented this thing can leave a review");
         }
-        throw new ValidateException("Only the user who rented this thing can leave a review");
+        Comment comment = CommentMapper.toComment(commentDto, item, author, LocalDateTime.now());
+        Comment savedComment = commentRepository.save(comment);
+        itemBookingSummaries.commentAdded(itemId);
+        log.info("Added a comment on a thing with id = {} by a user with id = {}", itemId, userId);
+        return CommentMapper.toCommentDto(savedComment);
     }
 
-    private ItemDtoInfo toItemDtoInfo(Item item, int ownerId) {
-        Booking lastBooking = bookingRepository.findLastBooking(item.getId(), ownerId);
-        Booking nextBooking = bookingRepository.findNextBooking(item.getId(), ownerId);
-        List<CommentDto> commentDtos = commentRepository.findAllByItemId(item.getId()).stream()
-                .map(CommentMapper::toCommentDto)
+    /**
+     * Last and next bookings (owner only) and comment counts come from the item booking
+     * summaries; only the owner's items whose summary is due fall back to the booking queries.
+     * Each item carries its newest {@link #NEWEST_COMMENTS} comments, loaded only for items that
+     * have any; the rest are paged through {@link #getComments(int, Cursor, int)}.
+     */
+    private List<ItemDtoInfo> toItemDtoInfo(List<Item> items, int ownerId) {
+        if (items.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Integer> itemIds = items.stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+        Map<Integer, ItemBookingSummary> summaries = itemBookingSummaries.findAll(itemIds);
+        Map<Integer, BookingDtoForItem> lastBookings = new HashMap<>();
+        Map<Integer, BookingDtoForItem> nextBookings = new HashMap<>();
+        putLastAndNextBookings(items, ownerId, summaries, lastBookings, nextBookings);
+        List<Integer> commentedIds = itemIds.stream()
+                .filter(id -> !summaries.containsKey(id) || summaries.get(id).getCommentCount() > 0)
+                .collect(Collectors.toList());
+        Map<Integer, List<CommentDto>> comments = commentedIds.isEmpty() ? Map.of() : newestComments(commentedIds);
+        Map<Integer, Long> commentCounts = summaries.values().stream()
+                .collect(Collectors.toMap(ItemBookingSummary::getItemId, ItemBookingSummary::getCommentCount,
+                        (c1, c2) -> c1, HashMap::new));
+        List<Integer> uncountedIds = itemIds.stream()
+                .filter(id -> !summaries.containsKey(id))
                 .collect(Collectors.toList());
-        ItemDtoInfo itemDtoInfo = ItemMapper.toItemDtoInfo(item);
-        if (lastBooking != null) {
-            itemDtoInfo.setLastBooking(BookingMapper.toBookingDtoForItem(lastBooking));
+        if (!uncountedIds.isEmpty()) {
+            commentRepository.countByItemIdIn(uncountedIds)
+                    .forEach(count -> commentCounts.put(count.getItemId(), count.getCount()));
+        }
+        return items.stream()
+                .map(item -> {
+                    ItemDtoInfo itemDtoInfo = ItemMapper.toItemDtoInfo(item);
+                    itemDtoInfo.setLastBooking(lastBookings.get(item.getId()));
+                    itemDtoInfo.setNextBooking(nextBookings.get(item.getId()));
+                    itemDtoInfo.setComments(comments.getOrDefault(item.getId(), new ArrayList<>()));
+                    itemDtoInfo.setCommentCount(commentCounts.getOrDefault(item.getId(), 0L));
+                    return itemDtoInfo;
+                })
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Last and next booking of the owner's items: from the summary while it is current, from the
+     * booking queries when it is missing or due.
+     */
+    private void putLastAndNextBookings(List<Item> items, int ownerId, Map<Integer, ItemBookingSummary> summaries,
+                                        Map<Integer, BookingDtoForItem> lastBookings,
+                                        Map<Integer, BookingDtoForItem> nextBookings) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Integer> dueIds = new ArrayList<>();
+        for (Item item : items) {
+            if (item.getOwnerId() != ownerId) {
+                continue;
+            }
+            ItemBookingSummary summary = summaries.get(item.getId());
+            if (summary == null || summary.isDue(now)) {
+                dueIds.add(item.getId());
+                continue;
+            }
+            if (summary.getLastBookingId() != null) {
+                lastBookings.put(item.getId(),
+                        new BookingDtoForItem(summary.getLastBookingId(), summary.getLastBookerId()));
+            }
+            if (summary.getNextBookingId() != null) {
+                nextBookings.put(item.getId(),
+                        new BookingDtoForItem(summary.getNextBookingId(), summary.getNextBookerId()));
+            }
+        }
+        if (!dueIds.isEmpty()) {
+            bookingRepository.findLastBookings(dueIds, ownerId).forEach(b ->
+                    lastBookings.putIfAbsent(b.getItem().getId(), BookingMapper.toBookingDtoForItem(b)));
+            bookingRepository.findNextBookings(dueIds, ownerId).forEach(b ->
+                    nextBookings.putIfAbsent(b.getItem().getId(), BookingMapper.toBookingDtoForItem(b)));
         }
-        if (nextBooking != null) {
-            itemDtoInfo.setNextBooking(BookingMapper.toBookingDtoForItem(nextBooking));
+    }
+
+    private static String bookingId(BookingDtoForItem booking) {
+        return booking == null ? "none" : String.valueOf(booking.getId());
+    }
+
+    private Map<Integer, List<CommentDto>> newestComments(List<Integer> itemIds) {
+        List<Integer> commentIds = commentRepository.findNewestIdsByItemIdIn(itemIds, NEWEST_COMMENTS);
+        if (commentIds.isEmpty()) {
+            return Map.of();
         }
-        itemDtoInfo.setComments(commentDtos);
-        return itemDtoInfo;
+        return commentRepository.findAllByIdIn(commentIds).stream()
+                .collect(Collectors.groupingBy(c -> c.getItem().getId(),
+                        Collectors.mapping(CommentMapper::toCommentDto, Collectors.toList())));
     }
 
     private PageRequest pagination(int from, int size) {
@@ -0,0 +1,98 @@
+package ru.practicum.shareit.item.summary;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.repository.BookingRef;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the item booking summaries in step with bookings and comments, so an item read is one
+ * row lookup instead of the last and next booking queries. Approvals and comments update the
+ * row in the writing transaction. A booking that starts or ends changes the last or next booking
+ * without any write, so each row records when that happens next and {@link #rollForward()}
+ * recomputes the rows that are due; reads recompute due rows themselves until it has.
+ */
+@Component
+@Transactional
+@RequiredArgsConstructor
+@Slf4j
+public class ItemBookingSummaries {
+    static final int ROLL_BATCH_SIZE = 500;
+    private static final PageRequest FIRST = PageRequest.of(0, 1);
+
+    private final ItemBookingSummaryRepository summaryRepository;
+    private final BookingRepository bookingRepository;
+
+    @Transactional(readOnly = true)
+    public Map<Integer, ItemBookingSummary> findAll(Collection<Integer> itemIds) {
+        return summaryRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(ItemBookingSummary::getItemId, Function.identity()));
+    }
+
+    public void created(Collection<Integer> itemIds) {
+        if (!itemIds.isEmpty()) {
+            summaryRepository.insertEmpty(itemIds);
+        }
+    }
+
+    /**
+     * Recomputes the last and next booking of the item. Called after a booking of the item has
+     * been approved, in the same transaction.
+     */
+    public void refresh(int itemId) {
+        summaryRepository.findForUpdate(itemId)
+                .ifPresent(summary -> refresh(summary, LocalDateTime.now()));
+    }
+
+    public void commentAdded(int itemId) {
+        summaryRepository.incrementCommentCount(itemId);
+    }
+
+    /**
+     * Must run before the user is deleted: the bookings and comments of the user go with
+     * ON DELETE CASCADE, after which the affected summaries can no longer be found.
+     */
+    public void userRemoved(int userId) {
+        summaryRepository.markDueByBooker(userId, LocalDateTime.now());
+        summaryRepository.subtractCommentsByAuthor(userId);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.item-summary.roll-delay:5000}")
+    public void rollForward() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Integer> due = summaryRepository.findDueItemIds(now, PageRequest.of(0, ROLL_BATCH_SIZE));
+        due.forEach(itemId -> summaryRepository.findForUpdate(itemId)
+                .ifPresent(summary -> refresh(summary, now)));
+        if (!due.isEmpty()) {
+            log.debug("{} item booking summaries rolled forward", due.size());
+        }
+    }
+
+    private void refresh(ItemBookingSummary summary, LocalDateTime now) {
+        int itemId = summary.getItemId();
+        List<BookingRef> last = bookingRepository.findApprovedEndedBefore(itemId, now, FIRST);
+        List<BookingRef> next = bookingRepository.findApprovedStartingAfter(itemId, now, FIRST);
+        LocalDateTime nextEnd = bookingRepository.findEarliestApprovedEndAfter(itemId, now);
+        summary.setLastBookingId(last.isEmpty() ? null : last.get(0).getId());
+        summary.setLastBookerId(last.isEmpty() ? null : last.get(0).getBookerId());
+        summary.setNextBookingId(next.isEmpty() ? null : next.get(0).getId());
+        summary.setNextBookerId(next.isEmpty() ? null : next.get(0).getBookerId());
+        LocalDateTime nextStart = next.isEmpty() ? null : next.get(0).getStart();
+        if (nextStart == null || nextEnd != null && nextEnd.isBefore(nextStart)) {
+            summary.setRefreshAt(nextEnd);
+        } else {
+            summary.setRefreshAt(nextStart);
+        }
+    }
+}
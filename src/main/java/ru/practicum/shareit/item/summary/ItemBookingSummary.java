@@ -0,0 +1,46 @@
+package ru.practicum.shareit.item.summary;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.time.LocalDateTime;
+
+/**
+ * What an item read needs besides the item itself: the last and next approved booking and the
+ * number of comments. {@code refreshAt} is the earliest start or end of an approved booking that
+ * lies ahead, the moment the last or next booking changes without any write; {@code null} when
+ * no such booking exists.
+ */
+@Entity
+@Table(name = "item_booking_summaries", schema = "public")
+@Data
+@NoArgsConstructor
+public class ItemBookingSummary {
+    @Id
+    @Column(name = "item_id")
+    private int itemId;
+    @Column(name = "last_booking_id")
+    private Integer lastBookingId;
+    @Column(name = "last_booker_id")
+    private Integer lastBookerId;
+    @Column(name = "next_booking_id")
+    private Integer nextBookingId;
+    @Column(name = "next_booker_id")
+    private Integer nextBookerId;
+    @Column(name = "comment_count", nullable = false)
+    private long commentCount;
+    @Column(name = "refresh_at")
+    private LocalDateTime refreshAt;
+
+    public ItemBookingSummary(int itemId) {
+        this.itemId = itemId;
+    }
+
+    public boolean isDue(LocalDateTime now) {
+        return refreshAt != null && !refreshAt.isAfter(now);
+    }
+}
@@ -0,0 +1,61 @@
+package ru.practicum.shareit.item.summary;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ItemBookingSummaryRepository extends JpaRepository<ItemBookingSummary, Integer> {
+
+    /**
+     * Empty summaries for new items, one statement per call. The items must be flushed first.
+     * A JPQL statement, unlike a native one, tells Hibernate which table it writes, so only the
+     * summaries and not every second-level cache region are invalidated.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("insert into ItemBookingSummary (itemId, commentCount) " +
+            "select i.id, 0L from Item i " +
+            "where i.id in :itemIds")
+    int insertEmpty(Collection<Integer> itemIds);
+
+    /**
+     * Locks the summary row, so concurrent refreshes of one item read the bookings one after
+     * the other and the last one to commit writes what it has seen.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from ItemBookingSummary s where s.itemId = :itemId")
+    Optional<ItemBookingSummary> findForUpdate(int itemId);
+
+    @Query("select s.itemId from ItemBookingSummary s " +
+            "where s.refreshAt <= :now " +
+            "order by s.refreshAt")
+    List<Integer> findDueItemIds(LocalDateTime now, Pageable pageable);
+
+    @Modifying
+    @Query("update ItemBookingSummary s set s.commentCount = s.commentCount + 1 " +
+            "where s.itemId = :itemId")
+    int incrementCommentCount(int itemId);
+
+    @Modifying
+    @Query("update ItemBookingSummary s set s.refreshAt = :now " +
+            "where s.lastBookerId = :bookerId " +
+            "or s.nextBookerId = :bookerId")
+    int markDueByBooker(int bookerId, LocalDateTime now);
+
+    @Modifying
+    @Query("update ItemBookingSummary s set s.commentCount = s.commentCount - " +
+            "(select count(c) from Comment c " +
+            "where c.item.id = s.itemId " +
+            "and c.author.id = :authorId) " +
+            "where s.itemId in (select c.item.id from Comment c where c.author.id = :authorId)")
+    int subtractCommentsByAuthor(int authorId);
+}
@@ -0,0 +1,50 @@
+package ru.practicum.shareit.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logs how many statements each HTTP request executed and how long it spent in the database,
+ * with a warning once the count exceeds {@code shareit.query-budget.warn-threshold}. The
+ * snapshot taken here is also what {@link QueryStatsResponseAdvice} reports in the response.
+ */
+@Component
+@Slf4j
+public class QueryBudgetFilter extends OncePerRequestFilter {
+    static final String SNAPSHOT_ATTRIBUTE = QueryBudgetFilter.class.getName() + ".snapshot";
+
+    private final int warnThreshold;
+
+    public QueryBudgetFilter(@Value("${shareit.query-budget.warn-threshold:20}") int warnThreshold) {
+        this.warnThreshold = warnThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        QueryStats.Snapshot snapshot = QueryStats.snapshot();
+        request.setAttribute(SNAPSHOT_ATTRIBUTE, snapshot);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long statements = snapshot.statementsSince();
+            long millis = TimeUnit.NANOSECONDS.toMillis(snapshot.nanosSince());
+            if (statements > warnThreshold) {
+                log.warn("{} {} executed {} statements in {} ms, the budget is {}",
+                        request.getMethod(), request.getRequestURI(), statements, millis, warnThreshold);
+            } else {
+                log.debug("{} {} executed {} statements in {} ms",
+                        request.getMethod(), request.getRequestURI(), statements, millis);
+            }
+        }
+    }
+}
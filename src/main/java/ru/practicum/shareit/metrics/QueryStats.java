@@ -0,0 +1,53 @@
+package ru.practicum.shareit.metrics;
+
+/**
+ * Running totals of the JDBC statements executed on the current thread and the time spent in
+ * them. The totals only grow; callers take a {@link #snapshot()} before the code they measure
+ * and subtract it afterwards, so nested measurements do not interfere.
+ */
+public final class QueryStats {
+    private static final ThreadLocal<QueryStats> CURRENT = ThreadLocal.withInitial(QueryStats::new);
+
+    private long statements;
+    private long nanos;
+    private long startedAt;
+
+    private QueryStats() {
+    }
+
+    public static QueryStats current() {
+        return CURRENT.get();
+    }
+
+    public static Snapshot snapshot() {
+        QueryStats stats = current();
+        return new Snapshot(stats.statements, stats.nanos);
+    }
+
+    void started() {
+        startedAt = System.nanoTime();
+    }
+
+    void finished() {
+        statements++;
+        nanos += System.nanoTime() - startedAt;
+    }
+
+    public static final class Snapshot {
+        private final long statements;
+        private final long nanos;
+
+        private Snapshot(long statements, long nanos) {
+            this.statements = statements;
+            this.nanos = nanos;
+        }
+
+        public long statementsSince() {
+            return current().statements - statements;
+        }
+
+        public long nanosSince() {
+            return current().nanos - nanos;
+        }
+    }
+}
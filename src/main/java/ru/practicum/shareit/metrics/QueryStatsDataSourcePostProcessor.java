@@ -0,0 +1,47 @@
+package ru.practicum.shareit.metrics;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Wraps the application data source so that every statement execution, including those of
+ * Flyway and plain JDBC, is added to the {@link QueryStats} of the executing thread. A batch
+ * counts as one execution. The proxy unwraps to the pool, so the Hikari metrics still bind.
+ * Only the bean named {@code dataSource} is wrapped: with replica routing the primary and replica
+ * pools behind it are data source beans too, and wrapping them as well would count twice.
+ */
+@Component
+public class QueryStatsDataSourcePostProcessor implements BeanPostProcessor {
+    private static final String DATA_SOURCE_BEAN = "dataSource";
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (DATA_SOURCE_BEAN.equals(beanName) && bean instanceof DataSource && !(bean instanceof ProxyDataSource)) {
+            return ProxyDataSourceBuilder.create((DataSource) bean)
+                    .name(beanName)
+                    .listener(new QueryStatsListener())
+                    .build();
+        }
+        return bean;
+    }
+
+    private static class QueryStatsListener implements QueryExecutionListener {
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            QueryStats.current().started();
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            QueryStats.current().finished();
+        }
+    }
+}
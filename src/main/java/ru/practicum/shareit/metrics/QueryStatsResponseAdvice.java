@@ -0,0 +1,44 @@
+package ru.practicum.shareit.metrics;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adds the statement count and database time of the request to responses with a body. The
+ * headers are written just before the body, when the handler has done all of its queries.
+ */
+@ControllerAdvice
+public class QueryStatsResponseAdvice implements ResponseBodyAdvice<Object> {
+    public static final String QUERY_COUNT_HEADER = "X-Query-Count";
+    public static final String QUERY_TIME_HEADER = "X-Query-Time-Ms";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest) {
+            Object snapshot = ((ServletServerHttpRequest) request).getServletRequest()
+                    .getAttribute(QueryBudgetFilter.SNAPSHOT_ATTRIBUTE);
+            if (snapshot instanceof QueryStats.Snapshot) {
+                QueryStats.Snapshot stats = (QueryStats.Snapshot) snapshot;
+                response.getHeaders().set(QUERY_COUNT_HEADER, String.valueOf(stats.statementsSince()));
+                response.getHeaders().set(QUERY_TIME_HEADER,
+                        String.valueOf(TimeUnit.NANOSECONDS.toMillis(stats.nanosSince())));
+            }
+        }
+        return body;
+    }
+}
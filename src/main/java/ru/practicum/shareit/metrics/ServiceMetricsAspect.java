@@ -0,0 +1,52 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Records every call of a {@code *Service} interface method as the {@code shareit.service} timer
+ * and the number of SQL statements it ran as the {@code shareit.service.queries} summary, both
+ * tagged with the service and method name. A method whose statement count grows with the size
+ * of its result is an N+1.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class ServiceMetricsAspect {
+    static final String TIMER = "shareit.service";
+    static final String QUERIES = "shareit.service.queries";
+
+    private final MeterRegistry meterRegistry;
+
+    @Around("execution(public * ru.practicum.shareit..*Service.*(..))")
+    public Object measure(ProceedingJoinPoint joinPoint) throws Throwable {
+        Tags tags = Tags.of("class", joinPoint.getSignature().getDeclaringType().getSimpleName(),
+                "method", joinPoint.getSignature().getName());
+        QueryStats.Snapshot queries = QueryStats.snapshot();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = "none";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(TIMER)
+                    .tags(tags)
+                    .tag("exception", exception)
+                    .register(meterRegistry));
+            DistributionSummary.builder(QUERIES)
+                    .baseUnit("statements")
+                    .tags(tags)
+                    .register(meterRegistry)
+                    .record(queries.statementsSince());
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package ru.practicum.shareit.pagination;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.exception.MessageFailedException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+@Getter
+@AllArgsConstructor
+public class Cursor {
+    public static final String HEADER = "X-Next-Cursor";
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime timestamp;
+    private final int id;
+
+    public static String encode(int id) {
+        return encode(null, id);
+    }
+
+    public static String encode(LocalDateTime timestamp, int id) {
+        String value = (timestamp == null ? "" : timestamp.toString()) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Cursor decode(String token) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.lastIndexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new IllegalArgumentException("Missing separator");
+            }
+            String timestamp = value.substring(0, separator);
+            return new Cursor(timestamp.isEmpty() ? null : LocalDateTime.parse(timestamp),
+                    Integer.parseInt(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeException e) {
+            throw new MessageFailedException(String.format("Invalid cursor: %s", token));
+        }
+    }
+
+    public LocalDateTime requireTimestamp() {
+        if (timestamp == null) {
+            throw new MessageFailedException("Invalid cursor: timestamp is missing");
+        }
+        return timestamp;
+    }
+}
@@ -2,8 +2,12 @@ package ru.practicum.shareit.request.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDtoOutput;
 import ru.practicum.shareit.request.service.ItemRequestService;
@@ -35,16 +39,30 @@ public class ItemRequestController {
     }
 
     @GetMapping("/all")
-    public List<ItemRequestDtoOutput> getAllOtherUser(@RequestHeader(X_SHARER_USER_ID) int userId,
-                                                      @PositiveOrZero @RequestParam(defaultValue = "0") int from,
-                                                      @Positive @RequestParam(defaultValue = "10") int size) {
+    public ResponseEntity<List<ItemRequestDtoOutput>> getAllOtherUser(@RequestHeader(X_SHARER_USER_ID) int userId,
+                                                                      @PositiveOrZero @RequestParam(defaultValue = "0") int from,
+                                                                      @Positive @RequestParam(defaultValue = "10") int size,
+                                                                      @RequestParam(required = false) String after) {
         log.info("getAllOtherUser() in ItemRequestController");
-        return itemRequestService.getAllOtherUser(userId, from, size);
+        List<ItemRequestDtoOutput> requests = after == null
+                ? itemRequestService.getAllOtherUser(userId, from, size)
+                : itemRequestService.getAllOtherUser(userId, Cursor.decode(after), size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (requests.size() == size) {
+            ItemRequestDtoOutput last = requests.get(requests.size() - 1);
+            response.header(Cursor.HEADER, Cursor.encode(last.getCreated(), last.getId()));
+        }
+        return response.body(requests);
     }
 
     @GetMapping("/{requestId}")
-    public ItemRequestDtoOutput getById(@RequestHeader(X_SHARER_USER_ID) int userId, @PathVariable int requestId) {
+    public ItemRequestDtoOutput getById(@RequestHeader(X_SHARER_USER_ID) int userId, @PathVariable int requestId,
+                                        ServletWebRequest request) {
         log.info("getById() in ItemRequestController");
+        request.getResponse().addHeader(HttpHeaders.VARY, X_SHARER_USER_ID);
+        if (request.checkNotModified(itemRequestService.getETag(userId, requestId))) {
+            return null;
+        }
         return itemRequestService.getById(userId, requestId);
     }
 }
@@ -1,21 +1,34 @@
 package ru.practicum.shareit.request.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.request.model.ItemRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Integer> {
 
+    @EntityGraph(attributePaths = "requester")
     @Query("select r from ItemRequest r " +
             "where r.requester.id = :requesterId " +
             "order by r.created desc")
     List<ItemRequest> findAllByRequesterId(int requesterId);
 
-    Page<ItemRequest> findAllByRequesterIdNot(int requesterId, Pageable page);
+    @Query("select r.id from ItemRequest r where r.requester.id = :requesterId")
+    List<Integer> findIdsByRequesterId(int requesterId);
+
+    @EntityGraph(attributePaths = "requester")
+    Slice<ItemRequest> findAllByRequesterIdNot(int requesterId, Pageable page);
+
+    @EntityGraph(attributePaths = "requester")
+    @Query("select r from ItemRequest r " +
+            "where r.requester.id <> :requesterId " +
+            "and (r.created < :created or (r.created = :created and r.id < :id))")
+    Slice<ItemRequest> findAllByRequesterIdNotBefore(int requesterId, LocalDateTime created, int id, Pageable page);
 }
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.request.service;
 
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDtoOutput;
 
@@ -12,5 +13,9 @@ public interface ItemRequestService {
 
     List<ItemRequestDtoOutput> getAllOtherUser(int userId, int from, int size);
 
+    List<ItemRequestDtoOutput> getAllOtherUser(int userId, Cursor after, int size);
+
     ItemRequestDtoOutput getById(int userId, int requestId);
+
+    String getETag(int userId, int requestId);
 }
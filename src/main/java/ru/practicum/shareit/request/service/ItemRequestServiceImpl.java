@@ -9,27 +9,35 @@ import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.repository.ItemVersions;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDtoOutput;
 import ru.practicum.shareit.request.dto.ItemRequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.registry.UserRegistry;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class ItemRequestServiceImpl implements ItemRequestService {
+    private static final Sort SORT_BY_CREATED_DESC = Sort.by(Sort.Direction.DESC, "created", "id");
     private final ItemRequestRepository itemRequestRepository;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
+    private final UserRegistry userRegistry;
 
     @Override
+    @Transactional
     public ItemRequestDto create(int userId, ItemRequestDto itemRequestDto) {
         User requester = userRepository.findById(userId)
                 .orElseThrow(() -> new NotFoundException(String.format("User with id = %s not found", userId)));
@@ -39,37 +47,58 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     @Override
     public List<ItemRequestDtoOutput> getAll(int userId) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException(String.format("User with id = %s not found", userId)));
-        return itemRequestRepository.findAllByRequesterId(userId).stream()
-                .map(r -> ItemRequestMapper.toItemRequestDtoOut(r, getItems(r.getId())))
-                .collect(Collectors.toList());
+        userRegistry.requireExists(userId);
+        return toItemRequestDtoOut(itemRequestRepository.findAllByRequesterId(userId));
     }
 
     @Override
     public List<ItemRequestDtoOutput> getAllOtherUser(int userId, int from, int size) {
         int page = from / size;
-        userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException(String.format("User with id = %s not found", userId)));
-        return itemRequestRepository.findAllByRequesterIdNot(userId, PageRequest.of(page, size,
-                        Sort.by(Sort.Direction.DESC, "created"))).stream()
-                .map(r -> ItemRequestMapper.toItemRequestDtoOut(r, getItems(r.getId())))
-                .collect(Collectors.toList());
+        userRegistry.requireExists(userId);
+        return toItemRequestDtoOut(itemRequestRepository.findAllByRequesterIdNot(userId, PageRequest.of(page, size,
+                SORT_BY_CREATED_DESC)).getContent());
+    }
+
+    @Override
+    public List<ItemRequestDtoOutput> getAllOtherUser(int userId, Cursor after, int size) {
+        userRegistry.requireExists(userId);
+        return toItemRequestDtoOut(itemRequestRepository.findAllByRequesterIdNotBefore(userId,
+                after.requireTimestamp(), after.getId(), PageRequest.of(0, size, SORT_BY_CREATED_DESC)).getContent());
     }
 
     @Override
     public ItemRequestDtoOutput getById(int userId, int requestId) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException(String.format("User with id = %s not found", userId)));
+        userRegistry.requireExists(userId);
         ItemRequest itemRequest = itemRequestRepository.findById(requestId)
                 .orElseThrow(() -> new NotFoundException(String.format("Request with user id = %s " +
                         "with id = %s not found", requestId, userId)));
-        return ItemRequestMapper.toItemRequestDtoOut(itemRequest, getItems(requestId));
+        return toItemRequestDtoOut(List.of(itemRequest)).get(0);
+    }
+
+    @Override
+    public String getETag(int userId, int requestId) {
+        userRegistry.requireExists(userId);
+        if (!itemRequestRepository.existsById(requestId)) {
+            throw new NotFoundException(String.format("Request with user id = %s with id = %s not found",
+                    requestId, userId));
+        }
+        ItemVersions items = itemRepository.findVersionsByItemRequestId(requestId);
+        return String.format("request-%s-%s-%s-%s", requestId, items.getTotal(), items.getIdSum(),
+                items.getVersionSum());
     }
 
-    private List<ItemDto> getItems(int id) {
-        return itemRepository.findItemByItemRequestId(id).stream()
+    private List<ItemRequestDtoOutput> toItemRequestDtoOut(List<ItemRequest> itemRequests) {
+        if (itemRequests.isEmpty()) {
+            return List.of();
+        }
+        Set<Integer> ids = itemRequests.stream()
+                .map(ItemRequest::getId)
+                .collect(Collectors.toSet());
+        Map<Integer, List<ItemDto>> items = itemRepository.findAllByItemRequestIdIn(ids).stream()
                 .map(ItemMapper::toItemDto)
+                .collect(Collectors.groupingBy(ItemDto::getRequestId));
+        return itemRequests.stream()
+                .map(r -> ItemRequestMapper.toItemRequestDtoOut(r, items.getOrDefault(r.getId(), List.of())))
                 .collect(Collectors.toList());
     }
 }
@@ -0,0 +1,45 @@
+package ru.practicum.shareit.transaction;
+
+import lombok.experimental.UtilityClass;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Defers changes to in-memory state (indexes, registries, caches) until the outcome of the
+ * current transaction is known, so they never run ahead of what the database has committed.
+ * Outside a transaction there is nothing to wait for: commit actions run at once and rollback
+ * actions never.
+ */
+@UtilityClass
+public class AfterTransaction {
+
+    public void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Runs the action unless the transaction commits, i.e. on rollback and on an unknown outcome.
+     */
+    public void unlessCommitted(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    action.run();
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,90 @@
+package ru.practicum.shareit.user.registry;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.datasource.ReplicaRoutingDataSource;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.BitSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Bitmap of live user ids, so that validating the {@code X-Sharer-User-Id} header does not
+ * need a query. Ids are dense identity values, which keeps the bitmap at about one bit per
+ * user ever created. A miss is checked against the database and remembered when the user is
+ * there, so users created by another instance or inserted directly are not rejected.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UserRegistry implements SmartInitializingSingleton {
+    private final UserRepository userRepository;
+    private final BitSet ids = new BitSet();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Filled before the web server accepts requests; an empty registry would reject every user.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            ids.clear();
+            ReplicaRoutingDataSource.onPrimary(() -> userRepository.findAllIds().forEach(ids::set));
+            log.info("User registry rebuilt with {} users", ids.cardinality());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void add(int userId) {
+        lock.writeLock().lock();
+        try {
+            ids.set(userId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(int userId) {
+        lock.writeLock().lock();
+        try {
+            ids.clear(userId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean exists(int userId) {
+        if (userId < 0) {
+            return false;
+        }
+        lock.readLock().lock();
+        try {
+            if (ids.get(userId)) {
+                return true;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (userRepository.existsById(userId)) {
+            add(userId);
+            return true;
+        }
+        return false;
+    }
+
+    public void requireExists(int userId) {
+        if (!exists(userId)) {
+            throw new NotFoundException(String.format("User with id = %s not found", userId));
+        }
+    }
+}
@@ -1,13 +1,22 @@
 package ru.practicum.shareit.user.repository;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.user.model.User;
 
+import java.util.List;
+
 @Repository
-public interface UserRepository extends JpaRepository<User, Integer> {
+public interface UserRepository extends JpaRepository<User, Integer>, UserRepositoryCustom {
+    Slice<User> findAllBy(Pageable page);
+
+    @Query("select u.id from User u")
+    List<Integer> findAllIds();
+
     @Modifying
     @Query("delete from User u where u.id = :id")
     void deleteById(int id);
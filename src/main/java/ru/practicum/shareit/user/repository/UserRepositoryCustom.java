@@ -0,0 +1,14 @@
+package ru.practicum.shareit.user.repository;
+
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.util.function.Consumer;
+
+public interface UserRepositoryCustom {
+    /**
+     * Reads all users in id order through a forward-only cursor and hands each one to
+     * {@code action} as soon as its row is read. Must run inside a transaction so that the
+     * driver can fetch in batches instead of buffering the whole result.
+     */
+    void streamAll(Consumer<UserDto> action);
+}
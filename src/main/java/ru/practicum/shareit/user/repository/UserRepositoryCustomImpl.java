@@ -0,0 +1,25 @@
+package ru.practicum.shareit.user.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import javax.sql.DataSource;
+import java.util.function.Consumer;
+
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+    private static final int FETCH_SIZE = 500;
+    private final JdbcTemplate jdbcTemplate;
+
+    public UserRepositoryCustomImpl(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+    }
+
+    @Override
+    public void streamAll(Consumer<UserDto> action) {
+        jdbcTemplate.query("select id, name, email from users order by id",
+                rs -> {
+                    action.accept(new UserDto(rs.getInt("id"), rs.getString("name"), rs.getString("email")));
+                });
+    }
+}
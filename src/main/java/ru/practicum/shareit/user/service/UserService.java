@@ -1,12 +1,14 @@
 package ru.practicum.shareit.user.service;
 
 import ru.practicum.shareit.user.dto.UserDto;
-import ru.practicum.shareit.user.model.User;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface UserService {
-    List<User> getAll();
+    List<UserDto> getAll(int from, int size);
+
+    void streamAll(Consumer<UserDto> action);
 
     UserDto getById(int id);
 
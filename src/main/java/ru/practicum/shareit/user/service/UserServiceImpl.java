@@ -2,15 +2,30 @@ package ru.practicum.shareit.user.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.admission.BookingIntervalIndex;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.summary.ItemBookingSummaries;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.transaction.AfterTransaction;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.registry.UserRegistry;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import javax.persistence.Cache;
+import javax.persistence.EntityManagerFactory;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional(readOnly = true)
@@ -18,10 +33,26 @@ import java.util.List;
 @Slf4j
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
+    private final ItemSearchIndex itemSearchIndex;
+    private final EntityManagerFactory entityManagerFactory;
+    private final UserRegistry userRegistry;
+    private final ItemBookingSummaries itemBookingSummaries;
+    private final ItemRepository itemRepository;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final ItemRequestRepository itemRequestRepository;
 
-    public List<User> getAll() {
-        log.info("A list of all users has been received (getAll())");
-        return userRepository.findAll();
+    @Override
+    public List<UserDto> getAll(int from, int size) {
+        log.info("A page of users has been received (getAll())");
+        return userRepository.findAllBy(PageRequest.of(from / size, size, Sort.by("id"))).stream()
+                .map(UserMapper::toUser)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void streamAll(Consumer<UserDto> action) {
+        userRepository.streamAll(action);
+        log.info("All users have been streamed (streamAll())");
     }
 
     public UserDto getById(int id) {
@@ -32,8 +63,11 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional
     public UserDto create(UserDto userDto) {
         User user = userRepository.save(UserMapper.toUserDto(userDto));
+        int userId = user.getId();
+        AfterTransaction.afterCommit(() -> userRegistry.add(userId));
         log.info("User with id = {} created", user.getId());
         return UserMapper.toUser(user);
     }
@@ -52,8 +86,21 @@ public class UserServiceImpl implements UserService {
         return UserMapper.toUser(user);
     }
 
+    @Transactional
     public void delete(int id) {
+        itemBookingSummaries.userRemoved(id);
+        List<Integer> itemIds = itemRepository.findIdsRemovedWithUser(id);
+        List<Integer> requestIds = itemRequestRepository.findIdsByRequesterId(id);
+        bookingIntervalIndex.userRemoved(id, itemIds);
         userRepository.deleteById(id);
+        // neither the second-level cache nor the search index sees what ON DELETE CASCADE removes
+        AfterTransaction.afterCommit(() -> {
+            Cache cache = entityManagerFactory.getCache();
+            itemIds.forEach(itemId -> cache.evict(Item.class, itemId));
+            requestIds.forEach(requestId -> cache.evict(ItemRequest.class, requestId));
+            itemSearchIndex.removeAll(itemIds);
+            userRegistry.remove(id);
+        });
         log.info("User with id = {} deleted", id);
     }
 }
\ No newline at end of file
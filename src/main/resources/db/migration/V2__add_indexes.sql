@@ -0,0 +1,14 @@
+CREATE INDEX IF NOT EXISTS idx_items_owner_id ON items (owner_id, id);
+
+CREATE INDEX IF NOT EXISTS idx_items_request_id ON items (request_id);
+
+CREATE INDEX IF NOT EXISTS idx_requests_requestor_id ON requests (requestor_id, created);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_id ON bookings (booker_id, start_date);
+
+-- item_id lookups use the leading column of the composite indexes below
+CREATE INDEX IF NOT EXISTS idx_bookings_item_status_start ON bookings (item_id, status, start_date);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_item_status_end ON bookings (item_id, status, end_date);
+
+CREATE INDEX IF NOT EXISTS idx_comments_item_id ON comments (item_id);
@@ -0,0 +1,2 @@
+-- comment eligibility: has the booker an approved, finished booking of the item
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_item_status_end ON bookings (booker_id, item_id, status, end_date);
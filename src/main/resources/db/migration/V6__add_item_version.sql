@@ -0,0 +1,2 @@
+-- item version, a component of the ETags of item, booking and request reads
+ALTER TABLE items ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
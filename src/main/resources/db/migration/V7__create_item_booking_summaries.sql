@@ -0,0 +1,20 @@
+-- per-item last/next approved booking and comment count, maintained on writes (ItemBookingSummaries);
+-- refresh_at is the moment the row goes stale because a booking starts or ends
+CREATE TABLE IF NOT EXISTS item_booking_summaries (
+    item_id INTEGER NOT NULL,
+    last_booking_id INTEGER,
+    last_booker_id INTEGER,
+    next_booking_id INTEGER,
+    next_booker_id INTEGER,
+    comment_count BIGINT NOT NULL DEFAULT 0,
+    refresh_at TIMESTAMP WITH TIME ZONE,
+    CONSTRAINT pk_item_booking_summary PRIMARY KEY (item_id),
+    FOREIGN KEY (item_id) REFERENCES items (id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_item_booking_summaries_refresh_at ON item_booking_summaries (refresh_at);
+
+-- bookings are filled in by the first roll-forward, reads recompute due rows until then
+INSERT INTO item_booking_summaries (item_id, comment_count, refresh_at)
+SELECT i.id, (SELECT COUNT(*) FROM comments c WHERE c.item_id = i.id), CURRENT_TIMESTAMP
+FROM items i;
@@ -0,0 +1,4 @@
+-- newest comments of an item and the comment pages below a cursor read (item_id, id) backwards
+CREATE INDEX IF NOT EXISTS idx_comments_item_id_id ON comments (item_id, id);
+
+DROP INDEX IF EXISTS idx_comments_item_id;
@@ -0,0 +1,190 @@
+package ru.practicum.shareit;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.comment.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.summary.ItemBookingSummaryRepository;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+
+import javax.persistence.EntityManager;
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.data.jpa.domain.Specification.where;
+import static ru.practicum.shareit.booking.repository.BookingSpecifications.byBooker;
+import static ru.practicum.shareit.booking.repository.BookingSpecifications.byState;
+
+/**
+ * Calls the repository methods behind the hot reads, records the SQL they actually execute through
+ * a data source proxy and checks that H2 plans none of those statements as a full table scan.
+ */
+@DataJpaTest
+@Import(SchemaIndexTest.StatementRecorder.class)
+class SchemaIndexTest {
+    private static final PageRequest FIRST_PAGE = PageRequest.of(0, 10);
+
+    @Autowired
+    EntityManager entityManager;
+    @Autowired
+    StatementRecorder recorder;
+    @Autowired
+    ItemRepository itemRepository;
+    @Autowired
+    ItemRequestRepository itemRequestRepository;
+    @Autowired
+    BookingRepository bookingRepository;
+    @Autowired
+    CommentRepository commentRepository;
+    @Autowired
+    ItemBookingSummaryRepository summaryRepository;
+
+    @Test
+    void itemsByOwnerTest() {
+        assertIndexed(() -> itemRepository.findAllByOwnerId(1, PageRequest.of(0, 10, Sort.by("id"))));
+        assertIndexed(() -> itemRepository.findAllByOwnerIdAndIdGreaterThan(1, 10, PageRequest.of(0, 10,
+                Sort.by("id"))));
+    }
+
+    @Test
+    void itemsByRequestTest() {
+        assertIndexed(() -> itemRepository.findAllByItemRequestIdIn(List.of(1, 2)));
+    }
+
+    @Test
+    void requestsByRequesterTest() {
+        assertIndexed(() -> itemRequestRepository.findAllByRequesterId(1));
+    }
+
+    @Test
+    void bookingsByBookerTest() {
+        assertIndexed(() -> bookingRepository.findAllShort(where(byBooker(1))
+                        .and(byState(BookingState.ALL, LocalDateTime.now())),
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "start", "id"))));
+        assertUsesIndex("IDX_BOOKINGS_BOOKER_ITEM_STATUS_END", () ->
+                bookingRepository.existsByBookerIdAndItemIdAndStatusAndEndBefore(1, 2, Status.APPROVED,
+                        LocalDateTime.now()));
+    }
+
+    @Test
+    void lastAndNextBookingsTest() {
+        assertIndexed(() -> bookingRepository.findLastBookings(List.of(1, 2), 1));
+        assertIndexed(() -> bookingRepository.findNextBookings(List.of(1, 2), 1));
+        assertIndexed(() -> bookingRepository.findApprovedEndedBefore(1, LocalDateTime.now(), FIRST_PAGE));
+        assertIndexed(() -> bookingRepository.findApprovedStartingAfter(1, LocalDateTime.now(), FIRST_PAGE));
+    }
+
+    @Test
+    void commentsByItemTest() {
+        assertIndexed(() -> commentRepository.findNewestIdsByItemIdIn(List.of(1, 2), 10));
+        assertIndexed(() -> commentRepository.findPageByItemId(1, 10, FIRST_PAGE));
+    }
+
+    @Test
+    void dueSummariesTest() {
+        assertIndexed(() -> summaryRepository.findDueItemIds(LocalDateTime.now(), FIRST_PAGE));
+    }
+
+    private void assertIndexed(Runnable repositoryCall) {
+        plans(repositoryCall).forEach(plan -> assertFalse(plan.contains("tableScan"), plan));
+    }
+
+    private void assertUsesIndex(String index, Runnable repositoryCall) {
+        plans(repositoryCall).forEach(plan -> assertTrue(plan.contains(index), plan));
+    }
+
+    private List<String> plans(Runnable repositoryCall) {
+        recorder.clear();
+        repositoryCall.run();
+        List<QueryInfo> statements = recorder.statements();
+        assertFalse(statements.isEmpty(), "no statement executed");
+        List<String> plans = new ArrayList<>();
+        for (QueryInfo statement : statements) {
+            plans.add(statement.getQuery() + "\n" + explain(statement));
+        }
+        return plans;
+    }
+
+    private String explain(QueryInfo statement) {
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            Connection target = connection.unwrap(Connection.class);
+            try (PreparedStatement explain = target.prepareStatement("explain " + statement.getQuery())) {
+                if (!statement.getParametersList().isEmpty()) {
+                    for (ParameterSetOperation operation : statement.getParametersList().get(0)) {
+                        operation.getMethod().invoke(explain, operation.getArgs());
+                    }
+                }
+                try (ResultSet plan = explain.executeQuery()) {
+                    plan.next();
+                    return plan.getString(1);
+                }
+            } catch (IllegalAccessException | InvocationTargetException e) {
+                throw new SQLException("Cannot bind the recorded parameters", e);
+            }
+        });
+    }
+
+    @TestConfiguration
+    static class StatementRecorder implements QueryExecutionListener {
+        private final List<QueryInfo> statements = new CopyOnWriteArrayList<>();
+
+        @Bean
+        static BeanPostProcessor recordingDataSourcePostProcessor(StatementRecorder recorder) {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource && !(bean instanceof ProxyDataSource)) {
+                        return ProxyDataSourceBuilder.create((DataSource) bean)
+                                .listener(recorder)
+                                .build();
+                    }
+                    return bean;
+                }
+            };
+        }
+
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            statements.addAll(queryInfoList);
+        }
+
+        void clear() {
+            statements.clear();
+        }
+
+        List<QueryInfo> statements() {
+            return new ArrayList<>(statements);
+        }
+    }
+}
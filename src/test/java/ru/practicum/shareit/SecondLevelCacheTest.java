@@ -0,0 +1,97 @@
+package ru.practicum.shareit;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.service.ItemServiceImpl;
+import ru.practicum.shareit.item.summary.ItemBookingSummaries;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.registry.UserRegistry;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs without a test transaction: Hibernate does not cache rows read back in the transaction that
+ * inserted them, so the fixture is committed first and every repository call gets its own session.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ItemServiceImpl.class, ItemSearchIndex.class, UserRegistry.class, ItemBookingSummaries.class})
+class SecondLevelCacheTest {
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    ItemRepository itemRepository;
+    @Autowired
+    ItemService itemService;
+    @Autowired
+    UserRegistry userRegistry;
+    Statistics statistics;
+    User user;
+    Item item;
+
+    @BeforeEach
+    void init() {
+        user = userRepository.save(new User(0, "user", "cache@mail"));
+        item = itemRepository.save(new Item(0, "item", "desc", true, user.getId(), null));
+        userRegistry.add(user.getId());
+        entityManagerFactory.getCache().evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        userRepository.deleteById(user.getId());
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void findByIdHitsCacheTest() {
+        userRepository.findById(user.getId());
+        itemRepository.findById(item.getId());
+        userRepository.findById(user.getId());
+        itemRepository.findById(item.getId());
+
+        assertEquals(2, statistics.getSecondLevelCacheMissCount());
+        assertEquals(2, statistics.getSecondLevelCacheHitCount());
+        assertTrue(entityManagerFactory.getCache().contains(User.class, user.getId()));
+    }
+
+    @Test
+    void evictTest() {
+        itemRepository.findById(item.getId());
+
+        entityManagerFactory.getCache().evict(Item.class);
+
+        assertFalse(entityManagerFactory.getCache().contains(Item.class, item.getId()));
+    }
+
+    @Test
+    void itemCreateKeepsCachedUserTest() {
+        userRepository.findById(user.getId());
+
+        itemService.create(new ItemDto(0, "drill", "desc", true, null), user.getId());
+
+        assertTrue(entityManagerFactory.getCache().contains(User.class, user.getId()));
+    }
+}
@@ -0,0 +1,143 @@
+package ru.practicum.shareit.booking.admission;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.BookingSlot;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BookingIntervalIndexTest {
+    BookingRepository bookingRepository;
+    BookingIntervalIndex index;
+    LocalDateTime base;
+    Item item;
+    User booker;
+    Booking approved;
+
+    @BeforeEach
+    void init() {
+        bookingRepository = mock(BookingRepository.class);
+        index = new BookingIntervalIndex(bookingRepository);
+        base = LocalDateTime.now().plusDays(1).withNano(0);
+        item = new Item(1, "item", "desc", true, 2, null);
+        booker = new User(1, "booker", "bo@mail");
+        approved = new Booking(1, booker, base, base.plusDays(2), item, Status.APPROVED);
+        when(bookingRepository.findAllByStatusAndEndAfter(eq(Status.APPROVED), any(LocalDateTime.class)))
+                .thenReturn(List.of(approved));
+        index.rebuild();
+    }
+
+    @Test
+    void findConflictTest() {
+        assertEquals(approved.getId(), index.findConflict(item.getId(), base.plusDays(1), base.plusDays(3))
+                .orElseThrow().getBookingId());
+        assertTrue(index.findConflict(item.getId(), base.minusDays(1), base.plusHours(1)).isPresent());
+        assertTrue(index.findConflict(item.getId(), base.minusDays(1), base.plusDays(5)).isPresent());
+    }
+
+    @Test
+    void adjacentRangesDoNotConflictTest() {
+        assertTrue(index.findConflict(item.getId(), base.plusDays(2), base.plusDays(3)).isEmpty());
+        assertTrue(index.findConflict(item.getId(), base.minusDays(1), base).isEmpty());
+        assertTrue(index.findConflict(2, base, base.plusDays(2)).isEmpty());
+    }
+
+    @Test
+    void tryAddTest() {
+        Booking overlapping = new Booking(2, booker, base.plusDays(1), base.plusDays(4), item, Status.WAITING);
+        Booking following = new Booking(3, booker, base.plusDays(2), base.plusDays(4), item, Status.WAITING);
+
+        assertFalse(index.tryAdd(overlapping));
+        assertTrue(index.tryAdd(following));
+        assertEquals(following.getId(), index.findConflict(item.getId(), base.plusDays(3), base.plusDays(5))
+                .orElseThrow().getBookingId());
+    }
+
+    @Test
+    void removeTest() {
+        index.remove(approved);
+
+        assertTrue(index.findConflict(item.getId(), base, base.plusDays(2)).isEmpty());
+    }
+
+    @Test
+    void rolledBackAddIsReleasedTest() {
+        Booking following = new Booking(2, booker, base.plusDays(2), base.plusDays(4), item, Status.WAITING);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertTrue(index.tryAdd(following));
+            assertTrue(index.findConflict(item.getId(), base.plusDays(3), base.plusDays(5)).isPresent());
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertTrue(index.findConflict(item.getId(), base.plusDays(3), base.plusDays(5)).isEmpty());
+        assertTrue(index.findConflict(item.getId(), base, base.plusDays(1)).isPresent());
+    }
+
+    @Test
+    void committedAddIsKeptTest() {
+        Booking following = new Booking(2, booker, base.plusDays(2), base.plusDays(4), item, Status.WAITING);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertTrue(index.tryAdd(following));
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertTrue(index.findConflict(item.getId(), base.plusDays(3), base.plusDays(5)).isPresent());
+    }
+
+    @Test
+    void pruneEndedTest() {
+        LocalDateTime now = LocalDateTime.now();
+        Item other = new Item(2, "other", "desc", true, 2, null);
+        index.tryAdd(other.getId(), 3, now.minusDays(2), now.minusDays(1));
+
+        index.pruneEnded();
+
+        assertTrue(index.findConflict(other.getId(), now.minusDays(2), now.minusDays(1)).isEmpty());
+        assertTrue(index.findConflict(item.getId(), base, base.plusDays(1)).isPresent());
+        assertTrue(index.tryAdd(other.getId(), 4, now.minusDays(2), now.minusDays(1)));
+    }
+
+    @Test
+    void userRemovedTest() {
+        Item other = new Item(2, "other", "desc", true, 3, null);
+        index.tryAdd(other.getId(), 3, base, base.plusDays(1));
+        BookingSlot slot = mock(BookingSlot.class);
+        when(slot.getId()).thenReturn(approved.getId());
+        when(slot.getItemId()).thenReturn(item.getId());
+        when(slot.getStart()).thenReturn(approved.getStart());
+        when(bookingRepository.findApprovedSlotsByBookerId(anyInt(), any(LocalDateTime.class)))
+                .thenReturn(List.of(slot));
+
+        index.userRemoved(booker.getId(), List.of(other.getId()));
+
+        assertTrue(index.findConflict(item.getId(), base, base.plusDays(2)).isEmpty());
+        assertTrue(index.findConflict(other.getId(), base, base.plusDays(1)).isEmpty());
+    }
+}
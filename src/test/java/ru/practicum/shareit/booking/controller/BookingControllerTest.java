@@ -9,22 +9,31 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.booking.dto.BookingConfirmationDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoRequest;
+import ru.practicum.shareit.booking.dto.BookingDtoShort;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.user.model.User;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(BookingController.class)
@@ -40,6 +49,7 @@ class BookingControllerTest {
     User owner;
     Item item;
     BookingDto bookingDto;
+    BookingDtoShort bookingDtoShort;
     BookingDtoRequest bookingDtoIn;
 
     @BeforeEach
@@ -49,6 +59,8 @@ class BookingControllerTest {
         item = new Item(1, "item", "descrItem", true, owner.getId(), null);
         bookingDto = new BookingDto(1, item, LocalDateTime.now().plusDays(1),
                 LocalDateTime.now().plusDays(2), booker, Status.WAITING);
+        bookingDtoShort = new BookingDtoShort(1, bookingDto.getStart(), bookingDto.getEnd(), Status.WAITING,
+                item.getId(), item.getName(), booker.getId(), booker.getName());
         bookingDtoIn = new BookingDtoRequest(bookingDto.getItem().getId(), bookingDto.getStart(), bookingDto.getEnd());
     }
 
@@ -72,54 +84,148 @@ class BookingControllerTest {
                 .getById(anyInt(), anyInt());
     }
 
+    @Test
+    void getByIdNotModifiedTest() throws Exception {
+        when(bookingService.getETag(bookingDto.getId(), owner.getId()))
+                .thenReturn("booking-1-0-0-1f");
+
+        mockMvc.perform(get("/bookings/{bookingId}", bookingDto.getId())
+                        .header("X-Sharer-User-Id", owner.getId())
+                        .header("If-None-Match", "\"booking-1-0-0-1f\""))
+                .andExpect(status().isNotModified());
+
+        verify(bookingService, never())
+                .getById(anyInt(), anyInt());
+    }
+
+    @Test
+    void getByIdModifiedTest() throws Exception {
+        when(bookingService.getETag(bookingDto.getId(), owner.getId()))
+                .thenReturn("booking-1-1-0-1f");
+        when(bookingService.getById(bookingDto.getId(), owner.getId()))
+                .thenReturn(bookingDto);
+
+        mockMvc.perform(get("/bookings/{bookingId}", bookingDto.getId())
+                        .header("X-Sharer-User-Id", owner.getId())
+                        .header("If-None-Match", "\"booking-1-0-0-1f\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"booking-1-1-0-1f\""))
+                .andExpect(jsonPath("$.id", is(bookingDto.getId()), Integer.class));
+    }
+
     @Test
     void getAllByBookerIdTest() throws Exception {
         when(bookingService.getAllByBookerId(anyInt(), anyString(), anyInt(), anyInt()))
-                .thenReturn(List.of(bookingDto));
+                .thenReturn(List.of(bookingDtoShort));
 
         mockMvc.perform(get("/bookings")
                         .header("X-Sharer-User-Id", booker.getId())
                         .param("state", "ALL")
                         .param("from", "0")
                         .param("size", "5")
-                        .content(mapper.writeValueAsString(bookingDto))
-                        .characterEncoding(StandardCharsets.UTF_8)
-                        .contentType(MediaType.APPLICATION_JSON)
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.length()").value(1))
-                .andExpect(jsonPath("$[0].id", is(bookingDto.getId()), Integer.class))
-                .andExpect(jsonPath("$[0].booker", is(bookingDto.getBooker()), User.class))
-                .andExpect(jsonPath("$[0].item", is(bookingDto.getItem()), Item.class));
+                .andExpect(jsonPath("$[0].id", is(bookingDtoShort.getId()), Integer.class))
+                .andExpect(jsonPath("$[0].booker.id", is(booker.getId()), Integer.class))
+                .andExpect(jsonPath("$[0].booker.email").doesNotExist())
+                .andExpect(jsonPath("$[0].item.id", is(item.getId()), Integer.class))
+                .andExpect(jsonPath("$[0].item.name", is(item.getName())))
+                .andExpect(jsonPath("$[0].item.description").doesNotExist());
 
         verify(bookingService, times(1))
                 .getAllByBookerId(anyInt(), anyString(), anyInt(), anyInt());
     }
 
+    @Test
+    void getAllByBookerIdAfterCursorTest() throws Exception {
+        when(bookingService.getAllByBookerId(anyInt(), anyString(), any(Cursor.class), anyInt()))
+                .thenReturn(List.of(bookingDtoShort));
+
+        mockMvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", booker.getId())
+                        .param("state", "ALL")
+                        .param("size", "1")
+                        .param("after", Cursor.encode(bookingDto.getStart().plusDays(1), 10))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(header().string(Cursor.HEADER,
+                        Cursor.encode(bookingDtoShort.getStart(), bookingDtoShort.getId())));
+
+        verify(bookingService, times(1))
+                .getAllByBookerId(anyInt(), anyString(), any(Cursor.class), anyInt());
+    }
+
+    @Test
+    void getAllByBookerIdInvalidCursorTest() throws Exception {
+        mockMvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", booker.getId())
+                        .param("after", "???")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void getAllByOwnerIdTest() throws Exception {
         when(bookingService.getAllByOwnerId(anyInt(), anyString(), anyInt(), anyInt()))
-                .thenReturn(List.of(bookingDto));
+                .thenReturn(List.of(bookingDtoShort));
 
         mockMvc.perform(get("/bookings/owner")
                         .header("X-Sharer-User-Id", owner.getId())
                         .param("state", "ALL")
                         .param("from", "0")
                         .param("size", "5")
-                        .content(mapper.writeValueAsString(bookingDto))
-                        .characterEncoding(StandardCharsets.UTF_8)
-                        .contentType(MediaType.APPLICATION_JSON)
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.length()").value(1))
-                .andExpect(jsonPath("$[0].id", is(bookingDto.getId()), Integer.class))
-                .andExpect(jsonPath("$[0].booker", is(bookingDto.getBooker()), User.class))
-                .andExpect(jsonPath("$[0].item", is(bookingDto.getItem()), Item.class));
+                .andExpect(jsonPath("$[0].id", is(bookingDtoShort.getId()), Integer.class))
+                .andExpect(jsonPath("$[0].booker.id", is(booker.getId()), Integer.class))
+                .andExpect(jsonPath("$[0].booker.email").doesNotExist())
+                .andExpect(jsonPath("$[0].item.id", is(item.getId()), Integer.class))
+                .andExpect(jsonPath("$[0].item.name", is(item.getName())))
+                .andExpect(jsonPath("$[0].item.description").doesNotExist());
 
         verify(bookingService, times(1))
                 .getAllByOwnerId(anyInt(), anyString(), anyInt(), anyInt());
     }
 
+    @Test
+    void exportCsvTest() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<BookingDtoShort> action = invocation.getArgument(1);
+            action.accept(bookingDtoShort);
+            return null;
+        }).when(bookingService).exportByOwnerId(anyInt(), any());
+
+        MvcResult result = mockMvc.perform(get("/bookings/owner/export")
+                        .header("X-Sharer-User-Id", owner.getId())
+                        .param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(content().string("id,start,end,status,itemId,itemName,bookerId,bookerName\n" +
+                        bookingDtoShort.getId() + "," + bookingDtoShort.getStart() + "," + bookingDtoShort.getEnd() +
+                        ",WAITING," + item.getId() + ",item," + booker.getId() + ",booker\n"));
+
+        verify(bookingService, times(1))
+                .exportByOwnerId(eq(owner.getId()), any());
+    }
+
+    @Test
+    void exportUnknownFormatTest() throws Exception {
+        mockMvc.perform(get("/bookings/owner/export")
+                        .header("X-Sharer-User-Id", owner.getId())
+                        .param("format", "xml"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Unknown format: xml")));
+
+        verifyNoInteractions(bookingService);
+    }
+
     @Test
     void createTest() throws Exception {
         when(bookingService.save(anyInt(), any(BookingDtoRequest.class)))
@@ -140,6 +246,41 @@ class BookingControllerTest {
                 .save(anyInt(), any(BookingDtoRequest.class));
     }
 
+    @Test
+    void confirmAllTest() throws Exception {
+        when(bookingService.confirmAll(anyInt(), anyList(), anyBoolean()))
+                .thenReturn(List.of(new BookingConfirmationDto(1, Status.APPROVED, null),
+                        new BookingConfirmationDto(2, null, "Request with id = 2 not found")));
+
+        mockMvc.perform(patch("/bookings")
+                        .header("X-Sharer-User-Id", owner.getId())
+                        .param("approved", "true")
+                        .content(mapper.writeValueAsString(List.of(1, 2)))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].status", is("APPROVED")))
+                .andExpect(jsonPath("$[1].error", is("Request with id = 2 not found")));
+
+        verify(bookingService, times(1))
+                .confirmAll(owner.getId(), List.of(1, 2), true);
+    }
+
+    @Test
+    void confirmationConflictTest() throws Exception {
+        when(bookingService.confirmation(anyInt(), anyInt(), anyBoolean()))
+                .thenThrow(new ConflictException("Booking with id = 1 has already been confirmed"));
+
+        mockMvc.perform(patch("/bookings/{bookingId}", bookingDto.getId())
+                        .header("X-Sharer-User-Id", owner.getId())
+                        .param("approved", "true")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error", is("Booking with id = 1 has already been confirmed")));
+    }
+
     @Test
     void confirmationTest() throws Exception {
         when(bookingService.confirmation(anyInt(), anyInt(), anyBoolean()))
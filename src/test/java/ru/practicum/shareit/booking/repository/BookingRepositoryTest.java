@@ -5,8 +5,12 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.booking.dto.BookingDtoShort;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
@@ -15,9 +19,17 @@ import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.data.jpa.domain.Specification.where;
+import static ru.practicum.shareit.booking.repository.BookingSpecifications.byBooker;
+import static ru.practicum.shareit.booking.repository.BookingSpecifications.byOwner;
+import static ru.practicum.shareit.booking.repository.BookingSpecifications.byState;
 
 @DataJpaTest
 class BookingRepositoryTest {
@@ -37,29 +49,33 @@ class BookingRepositoryTest {
 
     @BeforeEach
     void init() {
-        booker = userRepository.save(new User(1, "booker", "bo@mail"));
-        owner = userRepository.save(new User(2, "owner", "ow@email"));
-        item = itemRepository.save(new Item(1, "item", "desc", true, owner.getId(), null));
-        booking1 = bookingRepository.save(new Booking(1, booker, LocalDateTime.now().plusDays(1),
-                LocalDateTime.now().plusDays(3), item, Status.WAITING));
-        lastBooking = bookingRepository.save(new Booking(2, booker, LocalDateTime.now().minusDays(3),
-                LocalDateTime.now().minusHours(1), item, Status.APPROVED));
-        nextBooking = bookingRepository.save(new Booking(3, booker, LocalDateTime.now().plusDays(1),
-                LocalDateTime.now().plusDays(5), item, Status.APPROVED));
+        booker = userRepository.save(new User(0, "booker", "bo@mail"));
+        owner = userRepository.save(new User(0, "owner", "ow@email"));
+        item = itemRepository.save(new Item(0, "item", "desc", true, owner.getId(), null));
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        booking1 = bookingRepository.save(new Booking(0, booker, now.plusDays(1),
+                now.plusDays(3), item, Status.WAITING));
+        lastBooking = bookingRepository.save(new Booking(0, booker, now.minusDays(3),
+                now.minusHours(1), item, Status.APPROVED));
+        nextBooking = bookingRepository.save(new Booking(0, booker, now.plusDays(1),
+                now.plusDays(5), item, Status.APPROVED));
     }
 
     @Test
-    void findAllByBookerIdTest() {
-        List<Booking> res = bookingRepository.findAllByBookerId(booker.getId());
-
-        assertNotNull(res);
-        assertEquals(3, res.size());
-        assertEquals(booking1.getId(), res.get(0).getId());
+    void existsFinishedApprovedBookingTest() {
+        LocalDateTime now = LocalDateTime.now();
+
+        assertTrue(bookingRepository.existsByBookerIdAndItemIdAndStatusAndEndBefore(booker.getId(), item.getId(),
+                Status.APPROVED, now));
+        assertFalse(bookingRepository.existsByBookerIdAndItemIdAndStatusAndEndBefore(owner.getId(), item.getId(),
+                Status.APPROVED, now));
+        assertFalse(bookingRepository.existsByBookerIdAndItemIdAndStatusAndEndBefore(booker.getId(), item.getId(),
+                Status.APPROVED, lastBooking.getEnd().minusMinutes(1)));
     }
 
     @Test
-    void testFindAllByBookerIdTest() {
-        Page<Booking> res = bookingRepository.findAllByBookerId(booker.getId(), Pageable.unpaged());
+    void findAllByBookerSpecificationTest() {
+        Page<Booking> res = bookingRepository.findAll(byBooker(booker.getId()), Pageable.unpaged());
 
         assertNotNull(res);
         assertEquals(3, res.toList().size());
@@ -68,8 +84,8 @@ class BookingRepositoryTest {
     }
 
     @Test
-    void findAllByOwnerIdTest() {
-        Page<Booking> res = bookingRepository.findAllByOwnerId(owner.getId(), Pageable.unpaged());
+    void findAllByOwnerSpecificationTest() {
+        Page<Booking> res = bookingRepository.findAll(byOwner(owner.getId()), Pageable.unpaged());
 
         assertNotNull(res);
         assertEquals(3, res.getTotalElements());
@@ -77,18 +93,137 @@ class BookingRepositoryTest {
     }
 
     @Test
-    void findLastBookingTest() {
-        Booking res = bookingRepository.findLastBooking(item.getId(), owner.getId());
+    void findAllByStateSpecificationTest() {
+        LocalDateTime now = LocalDateTime.now();
+
+        assertEquals(1, bookingRepository.findAll(where(byOwner(owner.getId()))
+                .and(byState(BookingState.WAITING, now))).size());
+        assertEquals(1, bookingRepository.findAll(where(byBooker(booker.getId()))
+                .and(byState(BookingState.PAST, now))).size());
+        assertEquals(2, bookingRepository.findAll(where(byBooker(booker.getId()))
+                .and(byState(BookingState.FUTURE, now))).size());
+        assertEquals(0, bookingRepository.findAll(where(byBooker(booker.getId()))
+                .and(byState(BookingState.CURRENT, now))).size());
+        assertEquals(0, bookingRepository.findAll(where(byBooker(owner.getId()))
+                .and(byState(BookingState.ALL, now))).size());
+    }
+
+    @Test
+    void streamAllShortByOwnerIdTest() {
+        List<BookingDtoShort> res;
+        try (Stream<BookingDtoShort> bookings = bookingRepository.streamAllShortByOwnerId(owner.getId())) {
+            res = bookings.collect(Collectors.toList());
+        }
+
+        assertEquals(List.of(nextBooking.getId(), booking1.getId(), lastBooking.getId()),
+                res.stream().map(BookingDtoShort::getId).collect(Collectors.toList()));
+        assertEquals(item.getName(), res.get(0).getItem().getName());
+        assertEquals(booker.getName(), res.get(0).getBooker().getName());
+        try (Stream<BookingDtoShort> bookings = bookingRepository.streamAllShortByOwnerId(booker.getId())) {
+            assertEquals(0, bookings.count());
+        }
+    }
+
+    @Test
+    void findVersionByIdTest() {
+        BookingVersion res = bookingRepository.findVersionById(booking1.getId()).orElseThrow();
+
+        assertEquals(booker.getId(), res.getBookerId());
+        assertEquals(owner.getId(), res.getOwnerId());
+        assertEquals(booker.getEmail(), res.getBookerEmail());
+        assertFalse(bookingRepository.findVersionById(999).isPresent());
+    }
+
+    @Test
+    void findLastBookingsTest() {
+        List<Booking> res = bookingRepository.findLastBookings(List.of(item.getId()), owner.getId());
+
+        assertEquals(1, res.size());
+        assertEquals(lastBooking.getId(), res.get(0).getId());
+        assertEquals(lastBooking.getStart(), res.get(0).getStart());
+    }
+
+    @Test
+    void findNextBookingsTest() {
+        List<Booking> res = bookingRepository.findNextBookings(List.of(item.getId()), owner.getId());
+
+        assertEquals(1, res.size());
+        assertEquals(nextBooking.getId(), res.get(0).getId());
+        assertEquals(nextBooking.getEnd(), res.get(0).getEnd());
+    }
+
+    @Test
+    void findLastBookingsNotOwnerTest() {
+        List<Booking> res = bookingRepository.findLastBookings(List.of(item.getId()), booker.getId());
+
+        assertTrue(res.isEmpty());
+    }
+
+    @Test
+    void findAllShortByOwnerTest() {
+        List<BookingDtoShort> res = bookingRepository.findAllShort(byOwner(owner.getId()),
+                PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "start", "id")));
+
+        assertEquals(2, res.size());
+        assertEquals(nextBooking.getId(), res.get(0).getId());
+        assertEquals(item.getName(), res.get(0).getItem().getName());
+        assertEquals(booker.getId(), res.get(0).getBooker().getId());
+        assertEquals(Status.APPROVED, res.get(0).getStatus());
+        assertEquals(booking1.getId(), res.get(1).getId());
+    }
+
+    @Test
+    void findAllShortOffsetTest() {
+        List<BookingDtoShort> res = bookingRepository.findAllShort(byBooker(booker.getId()),
+                PageRequest.of(1, 2, Sort.by(Sort.Direction.DESC, "start", "id")));
+
+        assertEquals(1, res.size());
+        assertEquals(lastBooking.getId(), res.get(0).getId());
+    }
+
+    @Test
+    void existsApprovedOverlapTest() {
+        LocalDateTime start = nextBooking.getStart().plusDays(1);
+
+        assertTrue(bookingRepository.existsApprovedOverlap(item.getId(), booking1.getId(), start, start.plusDays(1)));
+        assertFalse(bookingRepository.existsApprovedOverlap(item.getId(), nextBooking.getId(), start,
+                start.plusDays(1)));
+        assertFalse(bookingRepository.existsApprovedOverlap(item.getId(), booking1.getId(), nextBooking.getEnd(),
+                nextBooking.getEnd().plusDays(1)));
+    }
+
+    @Test
+    void updateWaitingStatusTest() {
+        assertEquals(0, bookingRepository.updateWaitingStatus(booking1.getId(), booker.getId(), Status.APPROVED));
+        assertEquals(1, bookingRepository.updateWaitingStatus(booking1.getId(), owner.getId(), Status.APPROVED));
+        assertEquals(0, bookingRepository.updateWaitingStatus(booking1.getId(), owner.getId(), Status.REJECTED));
+        assertEquals(0, bookingRepository.updateWaitingStatus(nextBooking.getId(), owner.getId(), Status.REJECTED));
+    }
+
+    @Test
+    void findSlotsByIdInTest() {
+        List<BookingSlot> res = bookingRepository.findSlotsByIdIn(List.of(booking1.getId(), nextBooking.getId(),
+                999));
+
+        assertEquals(2, res.size());
+        BookingSlot slot = res.stream().filter(s -> s.getId() == booking1.getId()).findFirst().orElseThrow();
+        assertEquals(item.getId(), slot.getItemId());
+        assertEquals(owner.getId(), slot.getOwnerId());
+        assertEquals(Status.WAITING, slot.getStatus());
+    }
+
+    @Test
+    void findIdsOverlappingApprovedTest() {
+        List<Integer> res = bookingRepository.findIdsOverlappingApproved(List.of(booking1.getId(), lastBooking.getId()));
 
-        assertEquals(lastBooking.getId(), res.getId());
-        assertEquals(lastBooking.getStart(), res.getStart());
+        assertEquals(List.of(booking1.getId()), res);
     }
 
     @Test
-    void findNextBookingTest() {
-        Booking res = bookingRepository.findNextBooking(item.getId(), owner.getId());
+    void updateWaitingStatusesTest() {
+        List<Integer> ids = List.of(booking1.getId(), lastBooking.getId(), nextBooking.getId());
 
-        assertEquals(nextBooking.getId(), res.getId());
-        assertEquals(nextBooking.getEnd(), res.getEnd());
+        assertEquals(1, bookingRepository.updateWaitingStatuses(ids, Status.REJECTED));
+        assertEquals(0, bookingRepository.updateWaitingStatuses(ids, Status.REJECTED));
     }
-}
\ No newline at end of file
+}
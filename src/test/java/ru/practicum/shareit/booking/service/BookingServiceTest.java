@@ -2,43 +2,56 @@ package ru.practicum.shareit.booking.service;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
-import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
-import org.springframework.boot.test.mock.mockito.MockBean;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import ru.practicum.shareit.booking.admission.BookingIntervalIndex;
+import ru.practicum.shareit.booking.dto.BookingConfirmationDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoRequest;
+import ru.practicum.shareit.booking.dto.BookingDtoShort;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.BookingSlot;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.MessageFailedException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidateException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.summary.ItemBookingSummaries;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.registry.UserRegistry;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
-@WebMvcTest(BookingService.class)
-@AutoConfigureMockMvc
 class BookingServiceTest {
     BookingService bookingService;
-    @MockBean
     BookingRepository bookingRepository;
-    @MockBean
     UserRepository userRepository;
-    @MockBean
     ItemRepository itemRepository;
+    BookingIntervalIndex bookingIntervalIndex;
+    UserRegistry userRegistry;
+    ItemBookingSummaries itemBookingSummaries;
     Item item;
     User booker;
     User owner;
@@ -48,9 +61,18 @@ class BookingServiceTest {
 
     @BeforeEach
     void init() {
-        bookingService = new BookingServiceImpl(bookingRepository, itemRepository, userRepository);
+        bookingRepository = mock(BookingRepository.class);
+        userRepository = mock(UserRepository.class);
+        itemRepository = mock(ItemRepository.class);
+        itemBookingSummaries = mock(ItemBookingSummaries.class);
+        bookingIntervalIndex = new BookingIntervalIndex(bookingRepository);
+        userRegistry = new UserRegistry(userRepository);
+        bookingService = new BookingServiceImpl(bookingRepository, itemRepository, userRepository,
+                bookingIntervalIndex, userRegistry, itemBookingSummaries);
         booker = new User(1, "booker", "us@mail");
         owner = new User(2, "owner", "ow@email");
+        userRegistry.add(booker.getId());
+        userRegistry.add(owner.getId());
         item = new Item(1, "item", "descrItem", true, owner.getId(), null);
         booking = new Booking(1, booker, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(3), item, Status.WAITING);
         bookingDto = new BookingDto(1, item, booking.getStart(), booking.getEnd(), booker, booking.getStatus());
@@ -93,28 +115,130 @@ class BookingServiceTest {
 
     @Test
     void confirmationTest() {
-        when(userRepository.findById(anyInt()))
-                .thenReturn(Optional.of(booker));
-        when(itemRepository.findById(anyInt()))
-                .thenReturn(Optional.of(item));
         when(bookingRepository.findById(anyInt()))
                 .thenReturn(Optional.of(booking));
-        when(bookingRepository.save(any()))
-                .thenReturn(booking);
+        when(bookingRepository.updateWaitingStatus(anyInt(), anyInt(), any()))
+                .thenReturn(1);
 
         BookingDto res = bookingService.confirmation(booking.getId(), owner.getId(), true);
 
         assertNotNull(res);
         assertEquals(booking.getId(), res.getId());
         assertEquals(booking.getItem().getId(), res.getItem().getId());
+        assertEquals(Status.APPROVED, res.getStatus());
+        verify(bookingRepository).updateWaitingStatus(booking.getId(), owner.getId(), Status.APPROVED);
+        verify(itemBookingSummaries).refresh(item.getId());
+        verifyNoInteractions(userRepository, itemRepository);
+    }
+
+    @Test
+    void confirmationConcurrentUpdateTest() {
+        when(bookingRepository.findById(anyInt()))
+                .thenReturn(Optional.of(booking));
+        when(bookingRepository.updateWaitingStatus(anyInt(), anyInt(), any()))
+                .thenReturn(0);
+
+        Exception ex = assertThrows(ConflictException.class, () -> bookingService.confirmation(booking.getId(),
+                owner.getId(), true));
+        assertEquals("Booking with id = 1 has already been confirmed", ex.getMessage());
+        assertTrue(bookingIntervalIndex.findConflict(item.getId(), booking.getStart(), booking.getEnd()).isEmpty());
+    }
+
+    @Test
+    void confirmationNotOwnerTest() {
+        when(bookingRepository.findById(anyInt()))
+                .thenReturn(Optional.of(booking));
+
+        assertThrows(NotFoundException.class, () -> bookingService.confirmation(booking.getId(),
+                booker.getId(), true));
+        verify(bookingRepository, never()).updateWaitingStatus(anyInt(), anyInt(), any());
+    }
+
+    @Test
+    void confirmationOverlapInDatabaseTest() {
+        when(bookingRepository.findById(anyInt()))
+                .thenReturn(Optional.of(booking));
+        when(bookingRepository.existsApprovedOverlap(anyInt(), anyInt(), any(), any()))
+                .thenReturn(true);
+
+        assertThrows(ConflictException.class, () -> bookingService.confirmation(booking.getId(), owner.getId(), true));
+        assertEquals(Status.WAITING, booking.getStatus());
+    }
+
+    @Test
+    void confirmationOverlapInIndexTest() {
+        bookingIntervalIndex.tryAdd(new Booking(5, booker, booking.getStart().minusHours(1),
+                booking.getStart().plusHours(1), item, Status.APPROVED));
+        when(bookingRepository.findById(anyInt()))
+                .thenReturn(Optional.of(booking));
+
+        assertThrows(ConflictException.class, () -> bookingService.confirmation(booking.getId(), owner.getId(), true));
+    }
+
+    @Test
+    void confirmationRejectSkipsOverlapCheckTest() {
+        bookingIntervalIndex.tryAdd(new Booking(5, booker, booking.getStart(), booking.getEnd(), item,
+                Status.APPROVED));
+        when(bookingRepository.findById(anyInt()))
+                .thenReturn(Optional.of(booking));
+        when(bookingRepository.updateWaitingStatus(anyInt(), anyInt(), any()))
+                .thenReturn(1);
+
+        BookingDto res = bookingService.confirmation(booking.getId(), owner.getId(), false);
+
+        assertEquals(Status.REJECTED, res.getStatus());
+    }
+
+    @Test
+    void confirmAllTest() {
+        Booking rejected = new Booking(2, booker, booking.getStart(), booking.getEnd(), item, Status.REJECTED);
+        Booking sameSlot = new Booking(3, booker, booking.getStart(), booking.getEnd(), item, Status.WAITING);
+        when(bookingRepository.findSlotsByIdIn(anyList()))
+                .thenReturn(List.of(slot(booking), slot(rejected), slot(sameSlot)));
+        when(bookingRepository.findIdsOverlappingApproved(anyCollection()))
+                .thenReturn(List.of());
+        when(bookingRepository.updateWaitingStatuses(anyCollection(), any()))
+                .thenReturn(1);
+
+        List<BookingConfirmationDto> res = bookingService.confirmAll(owner.getId(), List.of(1, 2, 3, 4, 1), true);
+
+        assertEquals(4, res.size());
+        assertEquals(new BookingConfirmationDto(1, Status.APPROVED, null), res.get(0));
+        assertEquals(new BookingConfirmationDto(2, Status.REJECTED, "Changing the booking status is not available"),
+                res.get(1));
+        assertEquals(Status.WAITING, res.get(2).getStatus());
+        assertEquals("Booking with id = 3 overlaps an approved booking of item with id = 1", res.get(2).getError());
+        assertEquals(new BookingConfirmationDto(4, null, "Request with id = 4 not found"), res.get(3));
+        verify(bookingRepository).updateWaitingStatuses(List.of(1), Status.APPROVED);
+        verify(itemBookingSummaries).refresh(item.getId());
+    }
+
+    @Test
+    void confirmAllNotOwnerTest() {
+        when(bookingRepository.findSlotsByIdIn(anyList()))
+                .thenReturn(List.of(slot(booking)));
+
+        List<BookingConfirmationDto> res = bookingService.confirmAll(booker.getId(), List.of(1), false);
+
+        assertEquals("Only the owner of the item can edit the booking status", res.get(0).getError());
+        verify(bookingRepository, never()).updateWaitingStatuses(anyCollection(), any());
+    }
+
+    @Test
+    void confirmAllConcurrentUpdateTest() {
+        when(bookingRepository.findSlotsByIdIn(anyList()))
+                .thenReturn(List.of(slot(booking)));
+        when(bookingRepository.findIdsOverlappingApproved(anyCollection()))
+                .thenReturn(List.of());
+        when(bookingRepository.updateWaitingStatuses(anyCollection(), any()))
+                .thenReturn(0);
+
+        assertThrows(ConflictException.class, () -> bookingService.confirmAll(owner.getId(), List.of(1), true));
+        assertTrue(bookingIntervalIndex.findConflict(item.getId(), booking.getStart(), booking.getEnd()).isEmpty());
     }
 
     @Test
     void confirmationNotFoundBookingTest() {
-        when(userRepository.findById(anyInt()))
-                .thenReturn(Optional.of(booker));
-        when(itemRepository.findById(anyInt()))
-                .thenReturn(Optional.of(item));
         when(bookingRepository.findById(anyInt()))
                 .thenReturn(Optional.empty());
 
@@ -126,10 +250,6 @@ class BookingServiceTest {
     @Test
     void confirmationValidateExceptionTest() {
         booking.setStatus(Status.CANCELED);
-        when(userRepository.findById(anyInt()))
-                .thenReturn(Optional.of(booker));
-        when(itemRepository.findById(anyInt()))
-                .thenReturn(Optional.of(item));
         when(bookingRepository.findById(anyInt()))
                 .thenReturn(Optional.of(booking));
 
@@ -154,6 +274,19 @@ class BookingServiceTest {
         assertEquals(booking.getItem().getId(), res.getItem().getId());
     }
 
+    @Test
+    void saveOverlapsApprovedBookingTest() {
+        bookingIntervalIndex.tryAdd(new Booking(5, owner, bookingDtoIn.getStart().minusDays(1),
+                bookingDtoIn.getStart().plusHours(1), item, Status.APPROVED));
+        when(userRepository.findById(anyInt()))
+                .thenReturn(Optional.of(booker));
+        when(itemRepository.findById(anyInt()))
+                .thenReturn(Optional.of(item));
+
+        Exception ex = assertThrows(ConflictException.class, () -> bookingService.save(booker.getId(), bookingDtoIn));
+        assertTrue(ex.getMessage().startsWith("Item with id = 1 is already booked"));
+    }
+
     @Test
     void saveNotfoundExceptionTest() {
         when(userRepository.findById(anyInt()))
@@ -209,38 +342,40 @@ class BookingServiceTest {
 
     @Test
     void getAllByBookerIdTest() {
-        when(userRepository.findById(anyInt()))
-                .thenReturn(Optional.of(booker));
-        when(bookingRepository.findAllByBookerId(anyInt(), any(Pageable.class)))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+        when(bookingRepository.findAllShort(any(Specification.class), any(Pageable.class)))
+                .thenReturn(List.of(toShort(booking)));
 
-        List<BookingDto> res = bookingService.getAllByBookerId(booker.getId(), "ALL", 0, 3);
+        List<BookingDtoShort> res = bookingService.getAllByBookerId(booker.getId(), "ALL", 0, 3);
 
         assertNotNull(res);
         assertEquals(1, res.size());
     }
 
+    @Test
+    void getAllByBookerIdUnknownUserTest() {
+        Exception ex = assertThrows(NotFoundException.class, () -> bookingService.getAllByBookerId(3, "ALL", 0, 3));
+        assertEquals("User with id = 3 not found", ex.getMessage());
+        verify(userRepository).existsById(3);
+        verifyNoInteractions(bookingRepository);
+    }
+
     @Test
     void getAllByBookerIdBookingEmptyTest() {
-        when(userRepository.findById(anyInt()))
-                .thenReturn(Optional.of(booker));
-        when(bookingRepository.findAllByBookerId(anyInt(), any(Pageable.class)))
-                .thenReturn(new PageImpl<>(List.of()));
+        when(bookingRepository.findAllShort(any(Specification.class), any(Pageable.class)))
+                .thenReturn(List.of());
+
+        List<BookingDtoShort> res = bookingService.getAllByBookerId(booker.getId(), "ALL", 0, 3);
 
-        Exception ex = assertThrows(NotFoundException.class, () -> bookingService.getAllByBookerId(booker.getId(),
-                "ALL", 0, 3));
-        assertEquals("No bookings found", ex.getMessage());
+        assertTrue(res.isEmpty());
     }
 
     @Test
     void getAllByBookerIdStateRejectedTest() {
         booking.setStatus(Status.REJECTED);
-        when(userRepository.findById(anyInt()))
-                .thenReturn(Optional.of(booker));
-        when(bookingRepository.findAllByBookerId(anyInt(), any(Pageable.class)))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+        when(bookingRepository.findAllShort(any(Specification.class), any(Pageable.class)))
+                .thenReturn(List.of(toShort(booking)));
 
-        List<BookingDto> res = bookingService.getAllByBookerId(booker.getId(), "REJECTED", 0, 3);
+        List<BookingDtoShort> res = bookingService.getAllByBookerId(booker.getId(), "REJECTED", 0, 3);
 
         assertNotNull(res);
         assertEquals(1, res.size());
@@ -250,12 +385,10 @@ class BookingServiceTest {
     void getAllByBookerIdStatePastTest() {
         Booking lastBooking = new Booking(2, booker, LocalDateTime.now().minusDays(3),
                 LocalDateTime.now().minusHours(1), item, Status.APPROVED);
-        when(userRepository.findById(anyInt()))
-                .thenReturn(Optional.of(booker));
-        when(bookingRepository.findAllByBookerId(anyInt(), any(Pageable.class)))
-                .thenReturn(new PageImpl<>(List.of(lastBooking)));
+        when(bookingRepository.findAllShort(any(Specification.class), any(Pageable.class)))
+                .thenReturn(List.of(toShort(lastBooking)));
 
-        List<BookingDto> res = bookingService.getAllByBookerId(booker.getId(), "PAST", 0, 3);
+        List<BookingDtoShort> res = bookingService.getAllByBookerId(booker.getId(), "PAST", 0, 3);
 
         assertNotNull(res);
         assertEquals(1, res.size());
@@ -265,12 +398,10 @@ class BookingServiceTest {
     void getAllByBookerIdStateFutureTest() {
         Booking nextBooking = new Booking(3, booker, LocalDateTime.now().plusDays(1),
                 LocalDateTime.now().plusDays(5), item, Status.APPROVED);
-        when(userRepository.findById(anyInt()))
-                .thenReturn(Optional.of(booker));
-        when(bookingRepository.findAllByBookerId(anyInt(), any(Pageable.class)))
-                .thenReturn(new PageImpl<>(List.of(nextBooking)));
+        when(bookingRepository.findAllShort(any(Specification.class), any(Pageable.class)))
+                .thenReturn(List.of(toShort(nextBooking)));
 
-        List<BookingDto> res = bookingService.getAllByBookerId(booker.getId(), "FUTURE", 0, 3);
+        List<BookingDtoShort> res = bookingService.getAllByBookerId(booker.getId(), "FUTURE", 0, 3);
 
         assertNotNull(res);
         assertEquals(1, res.size());
@@ -280,12 +411,10 @@ class BookingServiceTest {
     void getAllByBookerIdStateCurrentTest() {
         Booking currentBooking = new Booking(4, booker, LocalDateTime.now().minusDays(1),
                 LocalDateTime.now().plusDays(5), item, Status.APPROVED);
-        when(userRepository.findById(anyInt()))
-                .thenReturn(Optional.of(booker));
-        when(bookingRepository.findAllByBookerId(anyInt(), any(Pageable.class)))
-                .thenReturn(new PageImpl<>(List.of(currentBooking)));
+        when(bookingRepository.findAllShort(any(Specification.class), any(Pageable.class)))
+                .thenReturn(List.of(toShort(currentBooking)));
 
-        List<BookingDto> res = bookingService.getAllByBookerId(booker.getId(), "CURRENT", 0, 3);
+        List<BookingDtoShort> res = bookingService.getAllByBookerId(booker.getId(), "CURRENT", 0, 3);
 
         assertNotNull(res);
         assertEquals(1, res.size());
@@ -293,37 +422,92 @@ class BookingServiceTest {
 
     @Test
     void getAllByBookerValidStateTest() {
-        when(userRepository.findById(anyInt()))
-                .thenReturn(Optional.of(booker));
-        when(bookingRepository.findAllByBookerId(anyInt(), any(Pageable.class)))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+        when(bookingRepository.findAllShort(any(Specification.class), any(Pageable.class)))
+                .thenReturn(List.of(toShort(booking)));
 
         assertThrows(MessageFailedException.class, () -> bookingService.getAllByBookerId(booker.getId(),
                 "ABC", 0, 2));
     }
 
+    @Test
+    void getAllByBookerIdAfterCursorTest() {
+        when(bookingRepository.findAllShort(any(Specification.class), any(Pageable.class)))
+                .thenReturn(List.of(toShort(booking)));
+
+        List<BookingDtoShort> res = bookingService.getAllByBookerId(booker.getId(), "ALL",
+                new Cursor(LocalDateTime.now().plusDays(2), 5), 3);
+
+        assertEquals(1, res.size());
+        assertEquals(booking.getId(), res.get(0).getId());
+    }
+
+    @Test
+    void getAllByOwnerIdAfterCursorEmptyTest() {
+        when(bookingRepository.findAllShort(any(Specification.class), any(Pageable.class)))
+                .thenReturn(List.of());
+
+        List<BookingDtoShort> res = bookingService.getAllByOwnerId(owner.getId(), "WAITING",
+                new Cursor(LocalDateTime.now(), 1), 3);
+
+        assertTrue(res.isEmpty());
+    }
+
     @Test
     void getAllByOwnerIdTest() {
-        when(userRepository.findById(anyInt()))
-                .thenReturn(Optional.of(owner));
-        when(bookingRepository.findAllByOwnerId(anyInt(), any(Pageable.class)))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+        when(bookingRepository.findAllShort(any(Specification.class), any(Pageable.class)))
+                .thenReturn(List.of(toShort(booking)));
 
-        List<BookingDto> res = bookingService.getAllByOwnerId(owner.getId(), "WAITING", 0, 3);
+        List<BookingDtoShort> res = bookingService.getAllByOwnerId(owner.getId(), "WAITING", 0, 3);
 
         assertNotNull(res);
         assertEquals(1, res.size());
     }
 
     @Test
-    void getAllByOwnerIdNotFoundExceptionTest() {
-        when(userRepository.findById(anyInt()))
-                .thenReturn(Optional.of(owner));
-        when(bookingRepository.findAllByOwnerId(anyInt(), any(Pageable.class)))
-                .thenReturn(new PageImpl<>(List.of()));
+    void exportByOwnerIdTest() {
+        when(bookingRepository.streamAllShortByOwnerId(owner.getId()))
+                .thenReturn(Stream.of(new BookingDtoShort(booking.getId(), booking.getStart(), booking.getEnd(),
+                        booking.getStatus(), item.getId(), item.getName(), booker.getId(), booker.getName())));
+        List<BookingDtoShort> exported = new ArrayList<>();
+
+        bookingService.exportByOwnerId(owner.getId(), exported::add);
+
+        assertEquals(1, exported.size());
+        assertEquals(booking.getId(), exported.get(0).getId());
+        assertEquals(item.getName(), exported.get(0).getItem().getName());
+    }
+
+    @Test
+    void exportByOwnerIdUnknownUserTest() {
+        assertThrows(NotFoundException.class, () -> bookingService.exportByOwnerId(99, booking -> {
+        }));
+
+        verify(bookingRepository, never()).streamAllShortByOwnerId(anyInt());
+    }
+
+    @Test
+    void getAllByOwnerIdBookingEmptyTest() {
+        when(bookingRepository.findAllShort(any(Specification.class), any(Pageable.class)))
+                .thenReturn(List.of());
+
+        List<BookingDtoShort> res = bookingService.getAllByOwnerId(owner.getId(), "WAITING", 0, 3);
+
+        assertTrue(res.isEmpty());
+    }
+
+    private BookingDtoShort toShort(Booking booking) {
+        return new BookingDtoShort(booking.getId(), booking.getStart(), booking.getEnd(), booking.getStatus(),
+                booking.getItem().getId(), booking.getItem().getName(),
+                booking.getBooker().getId(), booking.getBooker().getName());
+    }
 
-        Exception ex = assertThrows(NotFoundException.class, () -> bookingService.getAllByOwnerId(owner.getId(),
-                "WAITING", 0, 3));
-        assertEquals("No bookings found", ex.getMessage());
+    private BookingSlot slot(Booking booking) {
+        return new SpelAwareProxyProjectionFactory().createProjection(BookingSlot.class, Map.of(
+                "id", booking.getId(),
+                "itemId", booking.getItem().getId(),
+                "ownerId", booking.getItem().getOwnerId(),
+                "start", booking.getStart(),
+                "end", booking.getEnd(),
+                "status", booking.getStatus()));
     }
-}
\ No newline at end of file
+}
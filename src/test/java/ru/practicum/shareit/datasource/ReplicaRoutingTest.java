@@ -0,0 +1,105 @@
+package ru.practicum.shareit.datasource;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.registry.UserRegistry;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.sql.DataSource;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Two independent in-memory databases stand in for the primary and the replica: nothing is
+ * replicated, so a read shows which of them served it.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary",
+        "shareit.datasource.replica.jdbc-url=" + ReplicaRoutingTest.REPLICA_URL,
+        "shareit.datasource.replica.username=test",
+        "shareit.datasource.replica.password=test",
+        "shareit.datasource.read-your-writes-window=1m"
+})
+@AutoConfigureMockMvc
+class ReplicaRoutingTest {
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1";
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    @Autowired
+    MockMvc mockMvc;
+    @Autowired
+    ObjectMapper mapper;
+    @Autowired
+    UserService userService;
+    @Autowired
+    UserRegistry userRegistry;
+    @Autowired
+    @Qualifier("primaryDataSource")
+    DataSource primaryDataSource;
+
+    static {
+        // the replica must have its schema before the context starts, the indexes load while it does
+        Flyway.configure()
+                .dataSource(REPLICA_URL, "test", "test")
+                .load()
+                .migrate();
+    }
+
+    @Test
+    void readOnlyTransactionsReadReplicaTest() throws Exception {
+        userService.create(new UserDto(0, "user", "routing-user@mail"));
+
+        mockMvc.perform(get("/users"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    void ownWriteSwitchesReadsToPrimaryTest() throws Exception {
+        UserDto owner = userService.create(new UserDto(0, "owner", "routing-owner@mail"));
+        new JdbcTemplate(primaryDataSource).update("insert into items (id, name, description, available, owner_id) " +
+                "values (?, ?, ?, ?, ?)", 100_000, "seeded", "primary only", true, owner.getId());
+
+        mockMvc.perform(get("/items").header(USER_HEADER, owner.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+
+        mockMvc.perform(post("/items")
+                        .header(USER_HEADER, owner.getId())
+                        .content(mapper.writeValueAsString(new ItemDto(0, "created", "desc", true, null)))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/items").header(USER_HEADER, owner.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)));
+        mockMvc.perform(get("/users"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    void rebuildReadsPrimaryTest() {
+        new JdbcTemplate(primaryDataSource).update("insert into users (id, name, email) values (?, ?, ?)",
+                100_000, "seeded", "routing-seeded@mail");
+
+        userRegistry.rebuild();
+
+        assertTrue(userRegistry.exists(100_000));
+    }
+}
@@ -0,0 +1,73 @@
+package ru.practicum.shareit.execution;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class BulkheadFilterTest {
+    Bulkhead search;
+    BulkheadFilter filter;
+
+    @BeforeEach
+    void init() {
+        search = new Bulkhead("search", 1);
+        filter = new BulkheadFilter(Map.of("search", search), Duration.ZERO, new ObjectMapper());
+    }
+
+    @Test
+    void familyOfTest() {
+        assertEquals("search", BulkheadFilter.familyOf("/items/search"));
+        assertEquals("items", BulkheadFilter.familyOf("/items/1"));
+        assertEquals("bookings", BulkheadFilter.familyOf("/bookings"));
+    }
+
+    @Test
+    void admitTest() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/items/search"), response, chain);
+
+        assertEquals(200, response.getStatus());
+        assertNotNull(chain.getRequest());
+        assertEquals(0, search.getActive());
+    }
+
+    @Test
+    void rejectTest() throws Exception {
+        search.tryEnter(Duration.ZERO);
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/items/search"), response, chain);
+
+        assertEquals(503, response.getStatus());
+        assertEquals("1", response.getHeader("Retry-After"));
+        assertEquals("{\"error\":\"Too many concurrent search requests, try again later\"}",
+                response.getContentAsString());
+        assertNull(chain.getRequest());
+        assertEquals(1, search.getRejected());
+    }
+
+    @Test
+    void otherFamilyIsNotLimitedTest() throws Exception {
+        search.tryEnter(Duration.ZERO);
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("POST", "/bookings"), response, chain);
+
+        assertEquals(200, response.getStatus());
+        assertNotNull(chain.getRequest());
+    }
+}
@@ -0,0 +1,82 @@
+package ru.practicum.shareit.item.comment;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+class CommentRepositoryTest {
+    @Autowired
+    CommentRepository commentRepository;
+    @Autowired
+    ItemRepository itemRepository;
+    @Autowired
+    UserRepository userRepository;
+    Item popular;
+    Item quiet;
+    List<Comment> popularComments;
+    Comment quietComment;
+
+    @BeforeEach
+    void init() {
+        User author = userRepository.save(new User(0, "author", "au@mail"));
+        popular = itemRepository.save(new Item(0, "popular", "desc", true, author.getId(), null));
+        quiet = itemRepository.save(new Item(0, "quiet", "desc", true, author.getId(), null));
+        popularComments = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            popularComments.add(commentRepository.save(new Comment(0, "comment " + i, popular, author,
+                    LocalDateTime.now())));
+        }
+        quietComment = commentRepository.save(new Comment(0, "comment", quiet, author, LocalDateTime.now()));
+    }
+
+    @Test
+    void findNewestIdsByItemIdInTest() {
+        List<Integer> res = commentRepository.findNewestIdsByItemIdIn(List.of(popular.getId(), quiet.getId()), 2);
+
+        assertEquals(List.of(popularComments.get(3).getId(), popularComments.get(4).getId(), quietComment.getId()),
+                res.stream().sorted().collect(Collectors.toList()));
+    }
+
+    @Test
+    void findAllByIdInTest() {
+        List<Comment> res = commentRepository.findAllByIdIn(List.of(popularComments.get(0).getId(),
+                popularComments.get(2).getId()));
+
+        assertEquals(List.of(popularComments.get(2).getId(), popularComments.get(0).getId()),
+                res.stream().map(Comment::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    void findPageByItemIdTest() {
+        List<Comment> first = commentRepository.findPageByItemId(popular.getId(), Integer.MAX_VALUE,
+                PageRequest.of(0, 3));
+        List<Comment> second = commentRepository.findPageByItemId(popular.getId(), first.get(2).getId(),
+                PageRequest.of(0, 3));
+
+        assertEquals(List.of(popularComments.get(4), popularComments.get(3), popularComments.get(2)), first);
+        assertEquals(List.of(popularComments.get(1), popularComments.get(0)), second);
+    }
+
+    @Test
+    void countByItemIdInTest() {
+        Map<Integer, Long> res = commentRepository.countByItemIdIn(List.of(popular.getId(), quiet.getId())).stream()
+                .collect(Collectors.toMap(CommentCount::getItemId, CommentCount::getCount));
+
+        assertEquals(Map.of(popular.getId(), 5L, quiet.getId(), 1L), res);
+    }
+}
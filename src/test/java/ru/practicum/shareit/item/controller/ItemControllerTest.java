@@ -8,14 +8,18 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidateException;
 import ru.practicum.shareit.item.comment.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoInfo;
+import ru.practicum.shareit.item.importer.ItemImportReport;
+import ru.practicum.shareit.item.importer.ItemImportService;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.user.model.User;
 
 import java.nio.charset.StandardCharsets;
@@ -26,6 +30,7 @@ import java.util.List;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -34,6 +39,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 class ItemControllerTest {
     @MockBean
     ItemService itemService;
+    @MockBean
+    ItemImportService itemImportService;
     @Autowired
     ObjectMapper mapper;
     @Autowired
@@ -52,7 +59,8 @@ class ItemControllerTest {
         itemDtoInfo = new ItemDtoInfo(itemDto.getId(), itemDto.getName(), itemDto.getDescription(), item.getAvailable(),
                 null,
                 null,
-                new ArrayList<>());
+                new ArrayList<>(),
+                0);
         commentDto = new CommentDto(1, "comment", 1, "author",
                 LocalDateTime.of(2022, 10, 1, 12, 0, 1));
     }
@@ -75,6 +83,36 @@ class ItemControllerTest {
                 .getAll(anyInt(),  anyInt(), anyInt());
     }
 
+    @Test
+    void getCommentsTest() throws Exception {
+        when(itemService.getComments(anyInt(), any(), anyInt()))
+                .thenReturn(List.of(commentDto));
+
+        mockMvc.perform(get("/items/1/comments")
+                        .header("X-Sharer-User-Id", "1")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(Cursor.HEADER, Cursor.encode(commentDto.getId())))
+                .andExpect(jsonPath("$[0].id", is(commentDto.getId()), Integer.class))
+                .andExpect(jsonPath("$[0].text", is(commentDto.getText()), String.class));
+
+        verify(itemService).getComments(1, null, 1);
+    }
+
+    @Test
+    void getCommentsAfterCursorTest() throws Exception {
+        when(itemService.getComments(anyInt(), any(), anyInt()))
+                .thenReturn(List.of(commentDto));
+
+        mockMvc.perform(get("/items/1/comments")
+                        .header("X-Sharer-User-Id", "1")
+                        .param("after", Cursor.encode(5)))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(Cursor.HEADER));
+
+        verify(itemService).getComments(eq(1), argThat(cursor -> cursor.getId() == 5), eq(10));
+    }
+
     @Test
     void getAllValidateExceptionTest() throws Exception {
         mockMvc.perform(get("/items")
@@ -142,6 +180,21 @@ class ItemControllerTest {
                 .getById(anyInt(), anyInt());
     }
 
+    @Test
+    void getByIdNotModifiedTest() throws Exception {
+        when(itemService.getETag(itemDto.getId(), user.getId()))
+                .thenReturn("item-1-0-0");
+
+        mockMvc.perform(get("/items/{itemId}", itemDto.getId())
+                        .header("X-Sharer-User-Id", user.getId())
+                        .header("If-None-Match", "\"item-1-0-0\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"item-1-0-0\""));
+
+        verify(itemService, never())
+                .getById(anyInt(), anyInt());
+    }
+
     @Test
     void getByIdNotFoundTest() throws Exception {
         when(itemService.getById(anyInt(), anyInt()))
@@ -176,6 +229,21 @@ class ItemControllerTest {
                 .edit(any(), anyInt(), anyInt());
     }
 
+    @Test
+    void updateConcurrentlyTest() throws Exception {
+        when(itemService.edit(any(), anyInt(), anyInt()))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Item.class, itemDto.getId()));
+
+        mockMvc.perform(patch("/items/{itemId}", itemDto.getId())
+                        .header("X-Sharer-User-Id", "1")
+                        .content(mapper.writeValueAsString(itemDto))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error", is("The resource was changed by another request, reload it and retry")));
+    }
+
     @Test
     void deleteItemTest() throws Exception {
         mockMvc.perform(delete("/items/{itemId}", itemDto.getId())
@@ -232,4 +300,56 @@ class ItemControllerTest {
         verify(itemService, times(1))
                 .addComment(anyInt(), anyInt(), any());
     }
-}
\ No newline at end of file
+
+    @Test
+    void importJsonTest() throws Exception {
+        when(itemImportService.importAll(anyInt(), anyList()))
+                .thenReturn(new ItemImportReport(1, List.of(1), List.of()));
+
+        mockMvc.perform(post("/items/import")
+                        .header("X-Sharer-User-Id", user.getId())
+                        .content(mapper.writeValueAsString(List.of(itemDto)))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported", is(1)))
+                .andExpect(jsonPath("$.ids[0]", is(1)));
+
+        verify(itemImportService, times(1))
+                .importAll(user.getId(), List.of(itemDto));
+    }
+
+    @Test
+    void importCsvTest() throws Exception {
+        when(itemImportService.importAll(anyInt(), anyList(), anyList()))
+                .thenReturn(new ItemImportReport(1, List.of(1), List.of(new ItemImportReport.RowError(2, "error"))));
+
+        mockMvc.perform(post("/items/import")
+                        .header("X-Sharer-User-Id", user.getId())
+                        .content("name,description,available\nitemName,descr,true\nsaw,descr,yes\n")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType("text/csv")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported", is(1)))
+                .andExpect(jsonPath("$.errors[0].row", is(2)));
+
+        verify(itemImportService, times(1))
+                .importAll(eq(user.getId()), argThat(items -> items.size() == 2
+                        && "itemName".equals(items.get(0).getName())),
+                        eq(List.of(new ItemImportReport.RowError(2, "available must be true or false, got yes"))));
+    }
+
+    @Test
+    void importCsvMalformedTest() throws Exception {
+        mockMvc.perform(post("/items/import")
+                        .header("X-Sharer-User-Id", user.getId())
+                        .content("name,description\nitemName,descr\n")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType("text/csv"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(itemImportService);
+    }
+}
@@ -0,0 +1,68 @@
+package ru.practicum.shareit.item.importer;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.exception.ValidateException;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ItemCsvReaderTest {
+
+    @Test
+    void readTest() {
+        List<ItemDto> items = ItemCsvReader.read(new StringReader("available,name,description,requestId\r\n" +
+                "true,drill,\"cordless, 18V\",\n" +
+                "FALSE,\"saw \"\"pro\"\"\",hand saw,7\n")).getItems();
+
+        assertEquals(2, items.size());
+        assertEquals("drill", items.get(0).getName());
+        assertEquals("cordless, 18V", items.get(0).getDescription());
+        assertEquals(true, items.get(0).getAvailable());
+        assertNull(items.get(0).getRequestId());
+        assertEquals("saw \"pro\"", items.get(1).getName());
+        assertEquals(false, items.get(1).getAvailable());
+        assertEquals(7, items.get(1).getRequestId());
+    }
+
+    @Test
+    void readEmptyFieldsTest() {
+        List<ItemDto> items = ItemCsvReader.read(new StringReader("name,description,available\n,descr,")).getItems();
+
+        assertEquals(1, items.size());
+        assertNull(items.get(0).getName());
+        assertNull(items.get(0).getAvailable());
+    }
+
+    @Test
+    void readUnreadableRowsTest() {
+        ItemCsvReader.Rows rows = ItemCsvReader.read(new StringReader("name,description,available,requestId\n" +
+                "drill,descr\n" +
+                "saw,descr,yes,7\n" +
+                "hammer,descr,true,x\n" +
+                "axe,descr,true,\n"));
+
+        assertEquals(4, rows.getItems().size());
+        assertNull(rows.getItems().get(0));
+        assertNull(rows.getItems().get(1).getAvailable());
+        assertEquals(7, rows.getItems().get(1).getRequestId());
+        assertNull(rows.getItems().get(2).getRequestId());
+        assertEquals("axe", rows.getItems().get(3).getName());
+        assertEquals(List.of(
+                new ItemImportReport.RowError(1, "Row has 2 fields instead of 4"),
+                new ItemImportReport.RowError(2, "available must be true or false, got yes"),
+                new ItemImportReport.RowError(3, "requestId must be a number, got x")), rows.getErrors());
+    }
+
+    @Test
+    void readMalformedTest() {
+        assertThrows(ValidateException.class, () -> ItemCsvReader.read(new StringReader("")));
+        assertThrows(ValidateException.class, () -> ItemCsvReader.read(new StringReader("name,description\n")));
+        assertThrows(ValidateException.class,
+                () -> ItemCsvReader.read(new StringReader("name,description,available\n\"drill,descr,true\n")));
+    }
+}
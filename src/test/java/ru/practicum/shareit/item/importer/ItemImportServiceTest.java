@@ -0,0 +1,114 @@
+package ru.practicum.shareit.item.importer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.summary.ItemBookingSummaries;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.registry.UserRegistry;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManager;
+import javax.validation.Validation;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+class ItemImportServiceTest {
+    ItemImportService itemImportService;
+    ItemRepository itemRepository;
+    ItemRequestRepository itemRequestRepository;
+    EntityManager entityManager;
+    User owner;
+    ItemRequest itemRequest;
+
+    @BeforeEach
+    void init() {
+        itemRepository = mock(ItemRepository.class);
+        itemRequestRepository = mock(ItemRequestRepository.class);
+        entityManager = mock(EntityManager.class);
+        UserRegistry userRegistry = new UserRegistry(mock(UserRepository.class));
+        owner = new User(1, "owner", "ow@mail");
+        userRegistry.add(owner.getId());
+        itemRequest = new ItemRequest(3, "req", new User(2, "requester", "re@mail"), LocalDateTime.now());
+        itemImportService = new ItemImportServiceImpl(itemRepository, itemRequestRepository,
+                new ItemSearchIndex(itemRepository), mock(ItemBookingSummaries.class), userRegistry,
+                Validation.buildDefaultValidatorFactory().getValidator(), entityManager);
+        AtomicInteger ids = new AtomicInteger();
+        when(itemRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Item> items = new ArrayList<>(invocation.getArgument(0));
+            items.forEach(item -> item.setId(ids.incrementAndGet()));
+            return items;
+        });
+    }
+
+    @Test
+    void importAllTest() {
+        when(itemRequestRepository.findAllById(anyCollection()))
+                .thenReturn(List.of(itemRequest));
+
+        ItemImportReport report = itemImportService.importAll(owner.getId(), List.of(
+                new ItemDto(0, "drill", "descr", true, null),
+                new ItemDto(0, "", "descr", true, null),
+                new ItemDto(0, "saw", "descr", true, itemRequest.getId()),
+                new ItemDto(0, "hammer", "descr", null, 99)));
+
+        assertEquals(2, report.getImported());
+        assertEquals(List.of(1, 2), report.getIds());
+        assertEquals(2, report.getErrors().size());
+        assertEquals(2, report.getErrors().get(0).getRow());
+        assertTrue(report.getErrors().get(0).getError().startsWith("name "));
+        assertEquals(4, report.getErrors().get(1).getRow());
+        assertTrue(report.getErrors().get(1).getError().startsWith("available "));
+        verify(itemRequestRepository, times(1)).findAllById(anyCollection());
+        verify(itemRepository, times(1)).saveAll(anyList());
+    }
+
+    @Test
+    void importAllUnreadableRowsTest() {
+        ItemImportReport report = itemImportService.importAll(owner.getId(), List.of(
+                        new ItemDto(0, "drill", "descr", null, null),
+                        new ItemDto(0, "saw", "descr", true, null)),
+                List.of(new ItemImportReport.RowError(1, "available must be true or false, got yes")));
+
+        assertEquals(List.of(1), report.getIds());
+        assertEquals(List.of(new ItemImportReport.RowError(1, "available must be true or false, got yes")),
+                report.getErrors());
+    }
+
+    @Test
+    void importAllInChunksTest() {
+        List<ItemDto> items = new ArrayList<>();
+        for (int i = 0; i < ItemImportServiceImpl.CHUNK_SIZE + 1; i++) {
+            items.add(new ItemDto(0, "item" + i, "descr", true, null));
+        }
+
+        ItemImportReport report = itemImportService.importAll(owner.getId(), items);
+
+        assertEquals(items.size(), report.getImported());
+        verify(itemRepository, times(2)).saveAll(anyList());
+        verify(entityManager, times(2)).flush();
+        verify(entityManager, times(2)).clear();
+        verifyNoInteractions(itemRequestRepository);
+    }
+
+    @Test
+    void importAllUnknownOwnerTest() {
+        assertThrows(NotFoundException.class, () -> itemImportService.importAll(99,
+                List.of(new ItemDto(0, "drill", "descr", true, null))));
+
+        verifyNoInteractions(itemRepository);
+    }
+}
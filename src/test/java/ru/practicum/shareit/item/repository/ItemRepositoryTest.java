@@ -17,6 +17,7 @@ import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DataJpaTest
 class ItemRepositoryTest {
@@ -32,16 +33,34 @@ class ItemRepositoryTest {
 
     @BeforeEach
     void init() {
-        user = userRepository.save(new User(1, "user", "u@mail"));
-        itemRequest = itemRequestRepository.save(new ItemRequest(1, "req", user, LocalDateTime.now()));
-        item = itemRepository.save(new Item(1, "item", "descr", true, user.getId(), itemRequest));
+        user = userRepository.save(new User(0, "user", "u@mail"));
+        itemRequest = itemRequestRepository.save(new ItemRequest(0, "req", user, LocalDateTime.now()));
+        item = itemRepository.save(new Item(0, "item", "descr", true, user.getId(), itemRequest));
     }
 
     @Test
-    void searchTest() {
-        Page<Item> res = itemRepository.search("item", Pageable.unpaged());
-        assertNotNull(res);
-        assertEquals(item, res.stream().findFirst().orElseThrow());
+    void saveAllAssignsSequenceIdsTest() {
+        List<Item> saved = itemRepository.saveAll(List.of(
+                new Item(0, "first", "descr", true, user.getId(), null),
+                new Item(0, "second", "descr", true, user.getId(), null)));
+        itemRepository.flush();
+
+        assertEquals(saved.get(0).getId() + 1, saved.get(1).getId());
+        assertTrue(saved.get(0).getId() > item.getId());
+        assertEquals(3, itemRepository.count());
+    }
+
+    @Test
+    void findVersionsByItemRequestIdTest() {
+        ItemVersions before = itemRepository.findVersionsByItemRequestId(itemRequest.getId());
+        item.setName("renamed");
+        itemRepository.saveAndFlush(item);
+        ItemVersions after = itemRepository.findVersionsByItemRequestId(itemRequest.getId());
+
+        assertEquals(1, before.getTotal());
+        assertEquals(item.getId(), before.getIdSum());
+        assertEquals(before.getVersionSum() + 1, after.getVersionSum());
+        assertEquals(0, itemRepository.findVersionsByItemRequestId(999).getTotal());
     }
 
     @Test
@@ -52,8 +71,8 @@ class ItemRepositoryTest {
     }
 
     @Test
-    void findItemByItemRequestIdTest() {
-        List<Item> res = itemRepository.findItemByItemRequestId(itemRequest.getId());
+    void findAllByItemRequestIdInTest() {
+        List<Item> res = itemRepository.findAllByItemRequestIdIn(List.of(itemRequest.getId(), 999));
         assertNotNull(res);
         assertEquals(1, res.size());
     }
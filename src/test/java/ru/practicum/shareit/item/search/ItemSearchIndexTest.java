@@ -0,0 +1,157 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ItemSearchIndexTest {
+    ItemRepository itemRepository;
+    ItemSearchIndex index;
+    Item drill;
+    Item screwdriver;
+    Item ladder;
+
+    @BeforeEach
+    void init() {
+        itemRepository = mock(ItemRepository.class);
+        index = new ItemSearchIndex(itemRepository);
+        drill = new Item(1, "Drill", "Cordless drill", true, 1, null);
+        screwdriver = new Item(2, "Screwdriver", "Works like a drill", true, 1, null);
+        ladder = new Item(3, "Ladder", "Three meters", true, 2, null);
+        when(itemRepository.findAll())
+                .thenReturn(List.of(screwdriver, drill, ladder));
+        index.rebuild();
+    }
+
+    @Test
+    void searchOrdersByRelevanceTest() {
+        List<Integer> res = ids(index.search("dRiLl", 0, 10));
+
+        assertEquals(List.of(drill.getId(), screwdriver.getId()), res);
+    }
+
+    @Test
+    void searchShortQueryTest() {
+        assertEquals(List.of(ladder.getId()), ids(index.search("ad", 0, 10)));
+    }
+
+    @Test
+    void searchPaginationTest() {
+        assertEquals(List.of(screwdriver.getId()), ids(index.search("drill", 1, 1)));
+        assertTrue(index.search("drill", 2, 1).isEmpty());
+    }
+
+    @Test
+    void searchSkipsUnavailableTest() {
+        drill.setAvailable(false);
+        index.put(drill);
+
+        assertEquals(List.of(screwdriver.getId()), ids(index.search("drill", 0, 10)));
+    }
+
+    @Test
+    void removeTest() {
+        index.remove(screwdriver.getId());
+        index.removeAll(List.of(ladder.getId()));
+
+        assertEquals(List.of(drill.getId()), ids(index.search("drill", 0, 10)));
+        assertTrue(index.search("ladder", 0, 10).isEmpty());
+    }
+
+    @Test
+    void editTest() {
+        ladder.setName("Stepladder");
+        ladder.setDescription("Folding");
+        index.put(ladder);
+
+        assertTrue(index.search("three", 0, 10).isEmpty());
+        assertEquals(List.of(ladder.getId()), ids(index.search("stepl", 0, 10)));
+    }
+
+    @Test
+    void searchResultIsCachedTest() {
+        List<ItemDto> first = index.search("Drill", 0, 10);
+
+        assertSame(first, index.search("dRILL", 0, 10));
+        assertEquals(1, index.getResultCache().stats().hitCount());
+    }
+
+    @Test
+    void writeInvalidatesOnlyMatchingQueriesTest() {
+        index.search("drill", 0, 10);
+        index.search("ladder", 0, 10);
+
+        drill.setDescription("Hammer drill");
+        index.put(drill);
+
+        assertNull(index.getResultCache().getIfPresent(new ItemSearchIndex.Query("drill", 0, 10)));
+        assertNotNull(index.getResultCache().getIfPresent(new ItemSearchIndex.Query("ladder", 0, 10)));
+        assertEquals(1, index.getInvalidations());
+        assertEquals(List.of(drill.getId(), screwdriver.getId()), ids(index.search("drill", 0, 10)));
+    }
+
+    @Test
+    void writeWithoutChangesKeepsCacheTest() {
+        index.search("drill", 0, 10);
+
+        index.put(new Item(drill.getId(), drill.getName(), drill.getDescription(), true, 1, null));
+
+        assertNotNull(index.getResultCache().getIfPresent(new ItemSearchIndex.Query("drill", 0, 10)));
+        assertEquals(0, index.getInvalidations());
+    }
+
+    @Test
+    void newMatchingItemInvalidatesTest() {
+        assertTrue(index.search("saw", 0, 10).isEmpty());
+
+        index.put(new Item(4, "Saw", "Hand saw", true, 2, null));
+
+        assertEquals(List.of(4), ids(index.search("saw", 0, 10)));
+    }
+
+    @Test
+    void removeAllInvalidatesMatchingQueriesTest() {
+        index.search("drill", 0, 10);
+        index.search("ladder", 0, 10);
+        index.search("three", 0, 10);
+
+        index.removeAll(List.of(drill.getId(), ladder.getId()));
+
+        assertEquals(3, index.getInvalidations());
+        assertEquals(List.of(screwdriver.getId()), ids(index.search("drill", 0, 10)));
+        assertTrue(index.search("three", 0, 10).isEmpty());
+    }
+
+    @Test
+    void putAllDropsResultCacheTest() {
+        index.search("drill", 0, 10);
+        index.search("ladder", 0, 10);
+
+        index.putAll(List.of(new Item(4, "Saw", "Hand saw", true, 2, null),
+                new Item(5, "Drill bits", "Set of bits", true, 2, null)));
+
+        assertEquals(0, index.getResultCache().estimatedSize());
+        assertEquals(2, index.getInvalidations());
+        assertEquals(List.of(4), ids(index.search("saw", 0, 10)));
+        assertEquals(List.of(drill.getId(), 5, screwdriver.getId()), ids(index.search("drill", 0, 10)));
+    }
+
+    private List<Integer> ids(List<ItemDto> items) {
+        return items.stream()
+                .map(ItemDto::getId)
+                .collect(Collectors.toList());
+    }
+}
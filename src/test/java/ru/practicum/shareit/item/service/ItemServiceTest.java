@@ -2,51 +2,56 @@ package ru.practicum.shareit.item.service;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
-import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
-import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import ru.practicum.shareit.booking.dto.BookingDtoForItem;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidateException;
 import ru.practicum.shareit.item.comment.Comment;
+import ru.practicum.shareit.item.comment.CommentCount;
 import ru.practicum.shareit.item.comment.CommentDto;
 import ru.practicum.shareit.item.comment.CommentRepository;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoInfo;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.summary.ItemBookingSummaries;
+import ru.practicum.shareit.item.summary.ItemBookingSummary;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.registry.UserRegistry;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
-@WebMvcTest(ItemService.class)
-@AutoConfigureMockMvc
 class ItemServiceTest {
 
     ItemService itemService;
-    @MockBean
     ItemRepository itemRepository;
-    @MockBean
     UserRepository userRepository;
-    @MockBean
     BookingRepository bookingRepository;
-    @MockBean
     CommentRepository commentRepository;
-    @MockBean
     ItemRequestRepository itemRequestRepository;
+    ItemBookingSummaries itemBookingSummaries;
     User user;
     Item item;
     ItemDto itemDto;
@@ -54,16 +59,27 @@ class ItemServiceTest {
     Booking booking;
     Comment comment;
     CommentDto commentDto;
+    ItemSearchIndex itemSearchIndex;
+    UserRegistry userRegistry;
 
     @BeforeEach
     void init() {
+        itemRepository = mock(ItemRepository.class);
+        userRepository = mock(UserRepository.class);
+        bookingRepository = mock(BookingRepository.class);
+        commentRepository = mock(CommentRepository.class);
+        itemRequestRepository = mock(ItemRequestRepository.class);
+        itemBookingSummaries = mock(ItemBookingSummaries.class);
         user = new User(1, "user", "user@email");
         itemRequest = new ItemRequest("descr itemRequest", user, LocalDateTime.now());
         item = new Item(1, "item", "descr", true, user.getId(), itemRequest);
         itemDto = new ItemDto(item.getId(), item.getName(), item.getDescription(),
                 item.getAvailable(), item.getItemRequest().getId());
+        itemSearchIndex = new ItemSearchIndex(itemRepository);
+        userRegistry = new UserRegistry(userRepository);
+        userRegistry.add(user.getId());
         itemService = new ItemServiceImpl(itemRepository, userRepository, bookingRepository, commentRepository,
-                itemRequestRepository);
+                itemRequestRepository, itemSearchIndex, userRegistry, itemBookingSummaries);
 
         booking = new Booking(1, user, LocalDateTime.now().minusDays(2), LocalDateTime.now().minusHours(2), item, Status.APPROVED);
         comment = new Comment(1, "comment", item, user, LocalDateTime.now());
@@ -83,6 +99,143 @@ class ItemServiceTest {
         assertEquals(1, res.size());
     }
 
+    @Test
+    void getAllWithBookingsAndCommentsTest() {
+        Booking nextBooking = new Booking(2, user, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2),
+                item, Status.APPROVED);
+        when(userRepository.findById(anyInt()))
+                .thenReturn(Optional.of(user));
+        when(itemRepository.findAllByOwnerId(anyInt(), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(item)));
+        when(bookingRepository.findLastBookings(anyCollection(), anyInt()))
+                .thenReturn(List.of(booking));
+        when(bookingRepository.findNextBookings(anyCollection(), anyInt()))
+                .thenReturn(List.of(nextBooking));
+        when(commentRepository.findNewestIdsByItemIdIn(anyCollection(), anyInt()))
+                .thenReturn(List.of(comment.getId()));
+        when(commentRepository.findAllByIdIn(anyCollection()))
+                .thenReturn(List.of(comment));
+        when(commentRepository.countByItemIdIn(anyCollection()))
+                .thenReturn(List.of(new SpelAwareProxyProjectionFactory().createProjection(CommentCount.class,
+                        Map.of("itemId", item.getId(), "count", 1L))));
+
+        List<ItemDtoInfo> res = itemService.getAll(user.getId(), 0, 2);
+
+        assertEquals(1, res.size());
+        assertEquals(booking.getId(), res.get(0).getLastBooking().getId());
+        assertEquals(nextBooking.getId(), res.get(0).getNextBooking().getId());
+        assertEquals(1, res.get(0).getComments().size());
+        assertEquals(commentDto.getText(), res.get(0).getComments().get(0).getText());
+        assertEquals(1, res.get(0).getCommentCount());
+        verify(commentRepository).findNewestIdsByItemIdIn(List.of(item.getId()), ItemServiceImpl.NEWEST_COMMENTS);
+    }
+
+    @Test
+    void getAllFromSummaryTest() {
+        ItemBookingSummary summary = new ItemBookingSummary(item.getId());
+        summary.setLastBookingId(2);
+        summary.setLastBookerId(3);
+        summary.setNextBookingId(4);
+        summary.setNextBookerId(5);
+        summary.setRefreshAt(LocalDateTime.now().plusDays(1));
+        when(itemRepository.findAllByOwnerId(anyInt(), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(item)));
+        when(itemBookingSummaries.findAll(anyCollection()))
+                .thenReturn(Map.of(item.getId(), summary));
+
+        List<ItemDtoInfo> res = itemService.getAll(user.getId(), 0, 2);
+
+        assertEquals(new BookingDtoForItem(2, 3), res.get(0).getLastBooking());
+        assertEquals(new BookingDtoForItem(4, 5), res.get(0).getNextBooking());
+        assertTrue(res.get(0).getComments().isEmpty());
+        assertEquals(0, res.get(0).getCommentCount());
+        verify(bookingRepository, never()).findLastBookings(anyCollection(), anyInt());
+        verify(bookingRepository, never()).findNextBookings(anyCollection(), anyInt());
+        verify(commentRepository, never()).findNewestIdsByItemIdIn(anyCollection(), anyInt());
+        verify(commentRepository, never()).countByItemIdIn(anyCollection());
+    }
+
+    @Test
+    void getAllDueSummaryTest() {
+        ItemBookingSummary summary = new ItemBookingSummary(item.getId());
+        summary.setNextBookingId(booking.getId());
+        summary.setNextBookerId(user.getId());
+        summary.setRefreshAt(booking.getStart());
+        when(itemRepository.findAllByOwnerId(anyInt(), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(item)));
+        when(itemBookingSummaries.findAll(anyCollection()))
+                .thenReturn(Map.of(item.getId(), summary));
+        when(bookingRepository.findLastBookings(anyCollection(), anyInt()))
+                .thenReturn(List.of(booking));
+
+        List<ItemDtoInfo> res = itemService.getAll(user.getId(), 0, 2);
+
+        assertEquals(booking.getId(), res.get(0).getLastBooking().getId());
+        assertNull(res.get(0).getNextBooking());
+    }
+
+    @Test
+    void getByIdNotOwnerFromSummaryTest() {
+        ItemBookingSummary summary = new ItemBookingSummary(item.getId());
+        summary.setLastBookingId(2);
+        summary.setLastBookerId(3);
+        summary.setRefreshAt(LocalDateTime.now().minusDays(1));
+        when(itemRepository.findById(anyInt()))
+                .thenReturn(Optional.of(item));
+        when(itemBookingSummaries.findAll(anyCollection()))
+                .thenReturn(Map.of(item.getId(), summary));
+
+        ItemDtoInfo res = itemService.getById(item.getId(), user.getId() + 1);
+
+        assertNull(res.getLastBooking());
+        verify(bookingRepository, never()).findLastBookings(anyCollection(), anyInt());
+    }
+
+    @Test
+    void getETagOwnerFromSummaryTest() {
+        ItemBookingSummary summary = new ItemBookingSummary(item.getId());
+        summary.setLastBookingId(2);
+        summary.setLastBookerId(3);
+        summary.setCommentCount(4);
+        summary.setRefreshAt(LocalDateTime.now().plusDays(1));
+        when(itemRepository.findById(anyInt()))
+                .thenReturn(Optional.of(item));
+        when(itemBookingSummaries.findAll(anyCollection()))
+                .thenReturn(Map.of(item.getId(), summary));
+
+        assertEquals("item-1-0-4-owner-2-none", itemService.getETag(item.getId(), user.getId()));
+        assertEquals("item-1-0-4", itemService.getETag(item.getId(), user.getId() + 1));
+        verify(commentRepository, never()).countByItemId(anyInt());
+        verify(bookingRepository, never()).findLastBookings(anyCollection(), anyInt());
+    }
+
+    @Test
+    void getETagOwnerDueSummaryTest() {
+        ItemBookingSummary summary = new ItemBookingSummary(item.getId());
+        summary.setNextBookingId(booking.getId());
+        summary.setNextBookerId(user.getId());
+        summary.setRefreshAt(booking.getStart());
+        when(itemRepository.findById(anyInt()))
+                .thenReturn(Optional.of(item));
+        when(itemBookingSummaries.findAll(anyCollection()))
+                .thenReturn(Map.of(item.getId(), summary));
+        when(bookingRepository.findLastBookings(anyCollection(), anyInt()))
+                .thenReturn(List.of(booking));
+
+        assertEquals("item-1-0-0-owner-1-none", itemService.getETag(item.getId(), user.getId()));
+    }
+
+    @Test
+    void getAllAfterCursorTest() {
+        when(itemRepository.findAllByOwnerIdAndIdGreaterThan(anyInt(), anyInt(), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(item)));
+
+        List<ItemDtoInfo> res = itemService.getAll(user.getId(), new Cursor(null, 0), 2);
+
+        assertEquals(1, res.size());
+        assertEquals(item.getId(), res.get(0).getId());
+    }
+
     @Test
     void getByIdTest() {
         when(itemRepository.findById(anyInt()))
@@ -119,12 +272,12 @@ class ItemServiceTest {
         assertEquals(item.getId(), res.getId());
         assertEquals(item.getName(), res.getName());
         assertEquals(item.getDescription(), res.getDescription());
+        verify(itemBookingSummaries).created(List.of(item.getId()));
     }
 
     @Test
     void createNotFoundUserTest() {
-        when(userRepository.findById(anyInt()))
-                .thenReturn(Optional.empty());
+        userRegistry.remove(user.getId());
         when(itemRepository.save(any()))
                 .thenReturn(item);
         when(itemRequestRepository.findById(anyInt()))
@@ -238,8 +391,7 @@ class ItemServiceTest {
 
     @Test
     void searchTest() {
-        when(itemRepository.search(anyString(), any(Pageable.class)))
-                .thenReturn(new PageImpl<>(List.of(item)));
+        itemSearchIndex.put(item);
 
         List<ItemDto> res = itemService.search("item", user.getId(), 0, 2);
 
@@ -247,10 +399,24 @@ class ItemServiceTest {
         assertEquals(1, res.size());
     }
 
+    @Test
+    void searchAfterEditTest() {
+        Item itemUpdate = new Item(1, "drill", "descr", true, user.getId(), itemRequest);
+        when(itemRepository.findById(anyInt()))
+                .thenReturn(Optional.of(item));
+        when(itemRepository.save(any()))
+                .thenReturn(itemUpdate);
+        itemSearchIndex.put(item);
+
+        itemService.edit(itemDto, user.getId(), item.getId());
+
+        assertEquals(0, itemService.search("item", user.getId(), 0, 2).size());
+        assertEquals(1, itemService.search("DRILL", user.getId(), 0, 2).size());
+    }
+
     @Test
     void searchTextLength0Test() {
-        when(itemRepository.search(anyString(), any(Pageable.class)))
-                .thenReturn(new PageImpl<>(List.of()));
+        itemSearchIndex.put(item);
 
         List<ItemDto> res = itemService.search("", user.getId(), 0, 2);
 
@@ -258,14 +424,45 @@ class ItemServiceTest {
         assertEquals(0, res.size());
     }
 
+    @Test
+    void getCommentsTest() {
+        when(itemRepository.findById(anyInt()))
+                .thenReturn(Optional.of(item));
+        when(commentRepository.findPageByItemId(anyInt(), anyInt(), any(Pageable.class)))
+                .thenReturn(List.of(comment));
+
+        List<CommentDto> res = itemService.getComments(item.getId(), null, 5);
+
+        assertEquals(List.of(commentDto), res);
+        verify(commentRepository).findPageByItemId(item.getId(), Integer.MAX_VALUE, PageRequest.of(0, 5));
+    }
+
+    @Test
+    void getCommentsAfterCursorTest() {
+        when(itemRepository.findById(anyInt()))
+                .thenReturn(Optional.of(item));
+
+        itemService.getComments(item.getId(), new Cursor(null, 7), 5);
+
+        verify(commentRepository).findPageByItemId(item.getId(), 7, PageRequest.of(0, 5));
+    }
+
+    @Test
+    void getCommentsNotFoundItemTest() {
+        when(itemRepository.findById(anyInt()))
+                .thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () -> itemService.getComments(item.getId(), null, 5));
+    }
+
     @Test
     void addCommentTest() {
         when(itemRepository.findById(anyInt()))
                 .thenReturn(Optional.of(item));
         when(userRepository.findById(anyInt()))
                 .thenReturn(Optional.of(user));
-        when(bookingRepository.findAllByBookerId(anyInt()))
-                .thenReturn(List.of(booking));
+        when(bookingRepository.existsByBookerIdAndItemIdAndStatusAndEndBefore(anyInt(), anyInt(), any(), any()))
+                .thenReturn(true);
         when(commentRepository.save(any()))
                 .thenReturn(comment);
 
@@ -274,6 +471,7 @@ class ItemServiceTest {
         assertEquals(comment.getId(), res.getId());
         assertEquals(comment.getText(), res.getText());
         assertEquals(comment.getCreated(), res.getCreated());
+        verify(itemBookingSummaries).commentAdded(item.getId());
     }
 
     @Test
@@ -282,8 +480,8 @@ class ItemServiceTest {
                 .thenReturn(Optional.empty());
         when(userRepository.findById(anyInt()))
                 .thenReturn(Optional.of(user));
-        when(bookingRepository.findAllByBookerId(anyInt()))
-                .thenReturn(List.of(booking));
+        when(bookingRepository.existsByBookerIdAndItemIdAndStatusAndEndBefore(anyInt(), anyInt(), any(), any()))
+                .thenReturn(true);
 
         assertThrows(NotFoundException.class, () -> itemService.addComment(user.getId(), item.getId(), commentDto));
     }
@@ -294,27 +492,23 @@ class ItemServiceTest {
                 .thenReturn(Optional.of(item));
         when(userRepository.findById(anyInt()))
                 .thenReturn(Optional.of(user));
-        when(bookingRepository.findAllByBookerId(anyInt()))
-                .thenReturn(List.of());
+        when(bookingRepository.existsByBookerIdAndItemIdAndStatusAndEndBefore(anyInt(), anyInt(), any(), any()))
+                .thenReturn(false);
 
         assertThrows(ValidateException.class, () -> itemService.addComment(user.getId(), item.getId(), commentDto));
     }
 
     @Test
-    void addCommentValidateExceptionBookerTest() {
-        User user2 = new User(2, "user2", "u2@mail");
-        booking.setBooker(user2);
-
+    void addCommentChecksApprovedFinishedBookingTest() {
         when(itemRepository.findById(anyInt()))
                 .thenReturn(Optional.of(item));
         when(userRepository.findById(anyInt()))
                 .thenReturn(Optional.of(user));
-        when(bookingRepository.findAllByBookerId(anyInt()))
-                .thenReturn(List.of(booking));
-        when(commentRepository.save(any()))
-                .thenReturn(comment);
 
         Exception ex = assertThrows(ValidateException.class, () -> itemService.addComment(user.getId(), item.getId(), commentDto));
         assertEquals("Only the user who rented this thing can leave a review", ex.getMessage());
+        verify(bookingRepository).existsByBookerIdAndItemIdAndStatusAndEndBefore(eq(user.getId()), eq(item.getId()),
+                eq(Status.APPROVED), any(LocalDateTime.class));
+        verify(commentRepository, never()).save(any());
     }
 }
\ No newline at end of file
@@ -0,0 +1,127 @@
+package ru.practicum.shareit.item.summary;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.comment.Comment;
+import ru.practicum.shareit.item.comment.CommentRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@Import(ItemBookingSummaries.class)
+class ItemBookingSummariesTest {
+    @Autowired
+    ItemBookingSummaries itemBookingSummaries;
+    @Autowired
+    ItemBookingSummaryRepository summaryRepository;
+    @Autowired
+    BookingRepository bookingRepository;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    ItemRepository itemRepository;
+    @Autowired
+    CommentRepository commentRepository;
+    @Autowired
+    TestEntityManager entityManager;
+    User booker;
+    Item item;
+    Booking lastBooking;
+    Booking currentBooking;
+    Booking nextBooking;
+
+    @BeforeEach
+    void init() {
+        booker = userRepository.save(new User(0, "booker", "bo@mail"));
+        User owner = userRepository.save(new User(0, "owner", "ow@email"));
+        item = itemRepository.save(new Item(0, "item", "desc", true, owner.getId(), null));
+        itemBookingSummaries.created(List.of(item.getId()));
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        lastBooking = bookingRepository.save(new Booking(0, booker, now.minusDays(3), now.minusDays(2), item,
+                Status.APPROVED));
+        currentBooking = bookingRepository.save(new Booking(0, booker, now.minusHours(1), now.plusHours(1), item,
+                Status.APPROVED));
+        nextBooking = bookingRepository.save(new Booking(0, booker, now.plusDays(1), now.plusDays(2), item,
+                Status.APPROVED));
+        bookingRepository.save(new Booking(0, booker, now.plusHours(2), now.plusHours(3), item, Status.WAITING));
+    }
+
+    @Test
+    void createdTest() {
+        ItemBookingSummary summary = summaryRepository.findById(item.getId()).orElseThrow();
+
+        assertNull(summary.getLastBookingId());
+        assertNull(summary.getNextBookingId());
+        assertNull(summary.getRefreshAt());
+        assertEquals(0, summary.getCommentCount());
+    }
+
+    @Test
+    void refreshTest() {
+        itemBookingSummaries.refresh(item.getId());
+        entityManager.flush();
+        entityManager.clear();
+
+        ItemBookingSummary summary = itemBookingSummaries.findAll(List.of(item.getId())).get(item.getId());
+
+        assertEquals(lastBooking.getId(), summary.getLastBookingId());
+        assertEquals(booker.getId(), summary.getLastBookerId());
+        assertEquals(nextBooking.getId(), summary.getNextBookingId());
+        assertEquals(booker.getId(), summary.getNextBookerId());
+        assertEquals(currentBooking.getEnd(), summary.getRefreshAt());
+        assertFalse(summary.isDue(LocalDateTime.now()));
+    }
+
+    @Test
+    void rollForwardTest() {
+        ItemBookingSummary summary = summaryRepository.findById(item.getId()).orElseThrow();
+        summary.setRefreshAt(LocalDateTime.now().minusMinutes(1));
+        entityManager.flush();
+        entityManager.clear();
+
+        itemBookingSummaries.rollForward();
+        entityManager.flush();
+        entityManager.clear();
+
+        summary = summaryRepository.findById(item.getId()).orElseThrow();
+        assertEquals(lastBooking.getId(), summary.getLastBookingId());
+        assertEquals(nextBooking.getId(), summary.getNextBookingId());
+        assertEquals(currentBooking.getEnd(), summary.getRefreshAt());
+    }
+
+    @Test
+    void commentAddedAndUserRemovedTest() {
+        itemBookingSummaries.refresh(item.getId());
+        commentRepository.save(new Comment(0, "comment", item, booker, LocalDateTime.now()));
+        itemBookingSummaries.commentAdded(item.getId());
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(1, summaryRepository.findById(item.getId()).orElseThrow().getCommentCount());
+
+        itemBookingSummaries.userRemoved(booker.getId());
+        entityManager.clear();
+
+        Map<Integer, ItemBookingSummary> summaries = itemBookingSummaries.findAll(List.of(item.getId()));
+        assertEquals(0, summaries.get(item.getId()).getCommentCount());
+        assertTrue(summaries.get(item.getId()).isDue(LocalDateTime.now()));
+    }
+}
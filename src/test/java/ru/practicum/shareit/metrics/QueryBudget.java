@@ -0,0 +1,31 @@
+package ru.practicum.shareit.metrics;
+
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * MockMvc matchers over the statement count reported by {@link QueryStatsResponseAdvice}. Only
+ * meaningful in tests that run against the proxied data source, i.e. with the full context.
+ */
+public final class QueryBudget {
+
+    private QueryBudget() {
+    }
+
+    public static ResultMatcher maxStatements(long max) {
+        return result -> {
+            long statements = statements(result);
+            assertTrue(statements <= max, () -> String.format("%s %s executed %s statements, the budget is %s",
+                    result.getRequest().getMethod(), result.getRequest().getRequestURI(), statements, max));
+        };
+    }
+
+    public static long statements(MvcResult result) {
+        String count = result.getResponse().getHeader(QueryStatsResponseAdvice.QUERY_COUNT_HEADER);
+        assertNotNull(count, "The response has no " + QueryStatsResponseAdvice.QUERY_COUNT_HEADER + " header");
+        return Long.parseLong(count);
+    }
+}
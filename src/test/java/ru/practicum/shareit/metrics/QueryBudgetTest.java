@@ -0,0 +1,77 @@
+package ru.practicum.shareit.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class QueryBudgetTest {
+    @Autowired
+    MockMvc mockMvc;
+    @Autowired
+    UserService userService;
+    @Autowired
+    ItemService itemService;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    ItemRepository itemRepository;
+    @Autowired
+    BookingRepository bookingRepository;
+
+    @Test
+    void ownerItemsQueryCountDoesNotGrowWithPageTest() throws Exception {
+        UserDto owner = userService.create(new UserDto(0, "owner", "budget-owner@mail"));
+        UserDto booker = userService.create(new UserDto(0, "booker", "budget-booker@mail"));
+        addItems(owner, booker, 2);
+        long fewItems = ownerItemsStatements(owner);
+
+        addItems(owner, booker, 4);
+        long manyItems = ownerItemsStatements(owner);
+
+        assertEquals(fewItems, manyItems);
+        mockMvc.perform(get("/items").header("X-Sharer-User-Id", owner.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(QueryStatsResponseAdvice.QUERY_TIME_HEADER))
+                .andExpect(QueryBudget.maxStatements(8));
+    }
+
+    private long ownerItemsStatements(UserDto owner) throws Exception {
+        return QueryBudget.statements(mockMvc.perform(get("/items").header("X-Sharer-User-Id", owner.getId()))
+                .andExpect(status().isOk())
+                .andReturn());
+    }
+
+    private void addItems(UserDto owner, UserDto booker, int count) {
+        User bookerUser = userRepository.findById(booker.getId()).orElseThrow();
+        for (int i = 0; i < count; i++) {
+            ItemDto itemDto = itemService.create(new ItemDto(0, "item", "descr", true, null), owner.getId());
+            Item item = itemRepository.findById(itemDto.getId()).orElseThrow();
+            bookingRepository.save(new Booking(0, bookerUser, LocalDateTime.now().minusDays(2),
+                    LocalDateTime.now().minusDays(1), item, Status.APPROVED));
+            bookingRepository.save(new Booking(0, bookerUser, LocalDateTime.now().plusDays(1),
+                    LocalDateTime.now().plusDays(2), item, Status.APPROVED));
+        }
+    }
+}
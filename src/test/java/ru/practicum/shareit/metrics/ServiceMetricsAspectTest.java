@@ -0,0 +1,67 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ServiceMetricsAspectTest {
+    SimpleMeterRegistry meterRegistry;
+    UserService target;
+    UserService userService;
+
+    @BeforeEach
+    void init() {
+        meterRegistry = new SimpleMeterRegistry();
+        target = mock(UserService.class);
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.addInterface(UserService.class);
+        factory.addAspect(new ServiceMetricsAspect(meterRegistry));
+        userService = factory.getProxy();
+    }
+
+    @Test
+    void measureTest() {
+        when(target.getById(1))
+                .thenReturn(new UserDto(1, "user", "us@mail"));
+
+        userService.getById(1);
+        userService.getById(1);
+
+        Timer timer = meterRegistry.find(ServiceMetricsAspect.TIMER)
+                .tags("class", "UserService", "method", "getById", "exception", "none")
+                .timer();
+        assertNotNull(timer);
+        assertEquals(2, timer.count());
+        DistributionSummary queries = meterRegistry.find(ServiceMetricsAspect.QUERIES)
+                .tags("class", "UserService", "method", "getById")
+                .summary();
+        assertNotNull(queries);
+        assertEquals(2, queries.count());
+        assertEquals(0, queries.totalAmount());
+    }
+
+    @Test
+    void measureExceptionTest() {
+        when(target.getById(2))
+                .thenThrow(new NotFoundException("User with id = 2 not found"));
+
+        assertThrows(NotFoundException.class, () -> userService.getById(2));
+
+        assertEquals(1, meterRegistry.find(ServiceMetricsAspect.TIMER)
+                .tags("method", "getById", "exception", "NotFoundException")
+                .timer()
+                .count());
+    }
+}
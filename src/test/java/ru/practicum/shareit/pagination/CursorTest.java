@@ -0,0 +1,36 @@
+package ru.practicum.shareit.pagination;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.exception.MessageFailedException;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CursorTest {
+
+    @Test
+    void encodeDecodeTest() {
+        LocalDateTime start = LocalDateTime.of(2022, 9, 1, 12, 30, 15, 123_000_000);
+
+        Cursor res = Cursor.decode(Cursor.encode(start, 42));
+
+        assertEquals(start, res.getTimestamp());
+        assertEquals(42, res.getId());
+    }
+
+    @Test
+    void encodeDecodeIdOnlyTest() {
+        Cursor res = Cursor.decode(Cursor.encode(7));
+
+        assertNull(res.getTimestamp());
+        assertEquals(7, res.getId());
+        assertThrows(MessageFailedException.class, res::requireTimestamp);
+    }
+
+    @Test
+    void decodeInvalidTest() {
+        assertThrows(MessageFailedException.class, () -> Cursor.decode("not a cursor"));
+        assertThrows(MessageFailedException.class, () -> Cursor.decode(Cursor.encode(1).substring(1)));
+    }
+}
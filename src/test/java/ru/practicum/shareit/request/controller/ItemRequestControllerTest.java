@@ -23,6 +23,7 @@ import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -119,4 +120,19 @@ class ItemRequestControllerTest {
         verify(itemRequestService, times(1))
                 .getById(anyInt(), anyInt());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getByIdNotModifiedTest() throws Exception {
+        when(itemRequestService.getETag(1, itemRequestDto.getId()))
+                .thenReturn("request-1-0-0-0");
+
+        mockMvc.perform(get("/requests/{requestId}", itemRequestDto.getId())
+                        .header("X-Sharer-User-Id", "1")
+                        .header("If-None-Match", "\"request-1-0-0-0\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("Vary", "X-Sharer-User-Id"));
+
+        verify(itemRequestService, never())
+                .getById(anyInt(), anyInt());
+    }
+}
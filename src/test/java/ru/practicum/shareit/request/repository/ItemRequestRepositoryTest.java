@@ -25,8 +25,8 @@ class ItemRequestRepositoryTest {
 
     @BeforeEach
     void init() {
-        requester = userRepository.save(new User(1, "req", "re@mail"));
-        itemRequest = itemRequestRepository.save(new ItemRequest(1, "desc", requester, LocalDateTime.now()));
+        requester = userRepository.save(new User(0, "req", "re@mail"));
+        itemRequest = itemRequestRepository.save(new ItemRequest(0, "desc", requester, LocalDateTime.now()));
     }
 
     @Test
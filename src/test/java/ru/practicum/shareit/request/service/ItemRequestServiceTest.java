@@ -2,39 +2,43 @@ package ru.practicum.shareit.request.service;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
-import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
-import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDtoOutput;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.registry.UserRegistry;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
-@WebMvcTest(ItemRequestService.class)
-@AutoConfigureMockMvc
 class ItemRequestServiceTest {
     ItemRequestService itemRequestService;
-    @MockBean
     ItemRequestRepository itemRequestRepository;
-    @MockBean
     UserRepository userRepository;
-    @MockBean
     ItemRepository itemRepository;
+    UserRegistry userRegistry;
     User user;
     User user2;
     ItemRequest itemRequest;
@@ -44,9 +48,16 @@ class ItemRequestServiceTest {
 
     @BeforeEach
     void init() {
-        itemRequestService = new ItemRequestServiceImpl(itemRequestRepository, userRepository, itemRepository);
+        itemRequestRepository = mock(ItemRequestRepository.class);
+        userRepository = mock(UserRepository.class);
+        itemRepository = mock(ItemRepository.class);
+        userRegistry = new UserRegistry(userRepository);
+        itemRequestService = new ItemRequestServiceImpl(itemRequestRepository, userRepository, itemRepository,
+                userRegistry);
         user = new User(1, "user", "us@mail");
         user2 = new User(2, "user2", "us2@mail");
+        userRegistry.add(user.getId());
+        userRegistry.add(user2.getId());
         itemRequest = new ItemRequest(1, "descr", user, LocalDateTime.now());
         itemRequest2 = new ItemRequest(2, "desc2", user2, LocalDateTime.now().plusHours(2));
         itemRequestDto = new ItemRequestDto(itemRequest.getId(), itemRequest.getDescription(), itemRequest.getCreated());
@@ -105,6 +116,40 @@ class ItemRequestServiceTest {
         assertEquals(1, res.size());
     }
 
+    @Test
+    void getAllOtherUserWithItemsTest() {
+        ItemRequest itemRequest3 = new ItemRequest(3, "desc3", user2, LocalDateTime.now().plusHours(1));
+        when(userRepository.findById(anyInt()))
+                .thenReturn(Optional.of(user));
+        when(itemRequestRepository.findAllByRequesterIdNot(anyInt(), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(itemRequest2, itemRequest3)));
+        when(itemRepository.findAllByItemRequestIdIn(anyCollection()))
+                .thenReturn(List.of(new Item(7, "item7", "d", true, user.getId(), itemRequest3),
+                        new Item(5, "item5", "d", true, user.getId(), itemRequest3)));
+
+        List<ItemRequestDtoOutput> res = itemRequestService.getAllOtherUser(user.getId(), 0, 2);
+
+        assertEquals(2, res.size());
+        assertTrue(res.get(0).getItems().isEmpty());
+        assertEquals(List.of(7, 5), res.get(1).getItems().stream().map(ItemDto::getId).collect(Collectors.toList()));
+        verify(itemRepository, times(1)).findAllByItemRequestIdIn(Set.of(itemRequest2.getId(), itemRequest3.getId()));
+    }
+
+    @Test
+    void getAllOtherUserAfterCursorTest() {
+        when(userRepository.findById(anyInt()))
+                .thenReturn(Optional.of(user));
+        when(itemRequestRepository.findAllByRequesterIdNotBefore(anyInt(), any(LocalDateTime.class), anyInt(),
+                any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(itemRequest2)));
+
+        List<ItemRequestDtoOutput> res = itemRequestService.getAllOtherUser(user.getId(),
+                new Cursor(LocalDateTime.now().plusDays(1), 3), 2);
+
+        assertEquals(1, res.size());
+        assertEquals(itemRequest2.getId(), res.get(0).getId());
+    }
+
     @Test
     void getByIdTest() {
         when(userRepository.findById(anyInt()))
@@ -9,11 +9,13 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.nio.charset.StandardCharsets;
 import java.util.Collections;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.is;
 import static org.mockito.Mockito.*;
@@ -38,15 +40,39 @@ class UserControllerTest {
 
     @Test
     void getAllTest() throws Exception {
-        when(userService.getAll())
+        when(userService.getAll(anyInt(), anyInt()))
                 .thenReturn(Collections.emptyList());
 
-        mockMvc.perform(get("/users"))
+        mockMvc.perform(get("/users")
+                        .param("from", "0")
+                        .param("size", "10"))
                 .andExpect(status().isOk())
                 .andExpect(content().json("[]"));
 
         verify(userService, times(1))
-                .getAll();
+                .getAll(0, 10);
+    }
+
+    @Test
+    void streamAllTest() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<UserDto> action = invocation.getArgument(0);
+            action.accept(userDto);
+            return null;
+        }).when(userService).streamAll(any());
+
+        MvcResult result = mockMvc.perform(get("/users")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(mapper.writeValueAsString(userDto) + "\n"));
+
+        verify(userService, times(1))
+                .streamAll(any());
     }
 
     @Test
@@ -0,0 +1,67 @@
+package ru.practicum.shareit.user.registry;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserRegistryTest {
+    UserRepository userRepository;
+    UserRegistry registry;
+
+    @BeforeEach
+    void init() {
+        userRepository = mock(UserRepository.class);
+        registry = new UserRegistry(userRepository);
+        when(userRepository.findAllIds())
+                .thenReturn(List.of(1, 3, 1000));
+        registry.rebuild();
+    }
+
+    @Test
+    void existsTest() {
+        assertTrue(registry.exists(1));
+        assertTrue(registry.exists(1000));
+        assertFalse(registry.exists(2));
+        assertFalse(registry.exists(-1));
+    }
+
+    @Test
+    void existsFallsBackToRepositoryTest() {
+        when(userRepository.existsById(2))
+                .thenReturn(true);
+
+        assertTrue(registry.exists(2));
+        assertTrue(registry.exists(2));
+        assertFalse(registry.exists(4));
+        verify(userRepository, times(1)).existsById(2);
+    }
+
+    @Test
+    void addRemoveTest() {
+        registry.add(2);
+        registry.remove(3);
+
+        assertTrue(registry.exists(2));
+        assertFalse(registry.exists(3));
+    }
+
+    @Test
+    void requireExistsTest() {
+        assertDoesNotThrow(() -> registry.requireExists(3));
+        Exception ex = assertThrows(NotFoundException.class, () -> registry.requireExists(4));
+        assertEquals("User with id = 4 not found", ex.getMessage());
+    }
+}
@@ -5,15 +5,28 @@ import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import ru.practicum.shareit.booking.admission.BookingIntervalIndex;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.summary.ItemBookingSummaries;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.registry.UserRegistry;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import javax.persistence.EntityManagerFactory;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 
 @WebMvcTest(UserService.class)
@@ -22,6 +35,13 @@ class UserServiceTest {
     @MockBean
     UserServiceImpl userService;
     UserRepository userRepository;
+    EntityManagerFactory entityManagerFactory;
+    UserRegistry userRegistry;
+    ItemBookingSummaries itemBookingSummaries;
+    ItemRepository itemRepository;
+    BookingIntervalIndex bookingIntervalIndex;
+    ItemRequestRepository itemRequestRepository;
+    ItemSearchIndex itemSearchIndex;
     UserDto userDto;
     User user;
 
@@ -30,15 +50,24 @@ class UserServiceTest {
         userDto = new UserDto(1, "user", "user@email");
         user = new User(userDto.getId(), userDto.getName(), userDto.getEmail());
         userRepository = mock(UserRepository.class);
-        userService = new UserServiceImpl(userRepository);
+        entityManagerFactory = mock(EntityManagerFactory.class, RETURNS_DEEP_STUBS);
+        userRegistry = new UserRegistry(userRepository);
+        itemBookingSummaries = mock(ItemBookingSummaries.class);
+        itemRepository = mock(ItemRepository.class);
+        bookingIntervalIndex = mock(BookingIntervalIndex.class);
+        itemRequestRepository = mock(ItemRequestRepository.class);
+        itemSearchIndex = new ItemSearchIndex(mock(ItemRepository.class));
+        userService = new UserServiceImpl(userRepository, itemSearchIndex,
+                entityManagerFactory, userRegistry, itemBookingSummaries, itemRepository, bookingIntervalIndex,
+                itemRequestRepository);
     }
 
     @Test
     void getAllTest() {
-        when(userRepository.findAll())
-                .thenReturn(List.of(user));
+        when(userRepository.findAllBy(any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(user)));
 
-        final List<User> users = userService.getAll();
+        final List<UserDto> users = userService.getAll(0, 10);
 
         assertNotNull(users);
         assertEquals(1, users.size());
@@ -64,6 +93,7 @@ class UserServiceTest {
 
         assertNotNull(res);
         assertEquals(user.getId(), res.getId());
+        assertTrue(userRegistry.exists(user.getId()));
     }
 
     @Test
@@ -100,10 +130,22 @@ class UserServiceTest {
     void deleteTest() {
         when(userRepository.findById(anyInt()))
                 .thenReturn(Optional.of(user));
+        when(itemRepository.findIdsRemovedWithUser(userDto.getId()))
+                .thenReturn(List.of(7));
+        when(itemRequestRepository.findIdsByRequesterId(userDto.getId()))
+                .thenReturn(List.of(3));
+        ItemRequest request = new ItemRequest(3, "descr", user, null);
+        itemSearchIndex.put(new Item(7, "drill", "answers the request", true, 2, request));
 
         userService.delete(userDto.getId());
         List<User> users = userRepository.findAll();
 
         assertEquals(0, users.size());
+        verify(entityManagerFactory.getCache()).evict(Item.class, 7);
+        verify(entityManagerFactory.getCache()).evict(ItemRequest.class, 3);
+        assertFalse(userRegistry.exists(userDto.getId()));
+        verify(itemBookingSummaries).userRemoved(userDto.getId());
+        verify(bookingIntervalIndex).userRemoved(userDto.getId(), List.of(7));
+        assertTrue(itemSearchIndex.search("drill", 0, 10).isEmpty());
     }
 }
\ No newline at end of file